@@ -0,0 +1,59 @@
+package com.example.erpsystem.benchmark;
+
+import com.example.erpsystem.dto.EmployeeData;
+import com.example.erpsystem.service.ArabicFontService;
+import com.example.erpsystem.service.FontRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shaping and reordering of the Arabic fields of the fixture employees. A cache size
+ * of 0 measures the ICU work itself, the default size the cached lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArabicShapingBenchmark {
+
+    @Param({"0", "4096"})
+    public int shapingCacheSize;
+
+    private ArabicFontService arabicFontService;
+    private String[] texts;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        arabicFontService = new ArabicFontService(new FontRegistry(), shapingCacheSize);
+        List<String> arabic = new ArrayList<>();
+        for (EmployeeData employee : BenchmarkFixtures.employees()) {
+            arabic.add(employee.getEmployeeNameInArabic());
+            arabic.add(employee.getTitleInArabic());
+            arabic.add(employee.getEducationInArabic());
+            arabic.add(employee.getAddressInArabic());
+            arabic.add(employee.getCompanyNameInArabic());
+        }
+        texts = arabic.toArray(String[]::new);
+    }
+
+    @Benchmark
+    public String shapeArabicText() {
+        return arabicFontService.shapeArabicText(texts[next++ % texts.length]);
+    }
+}
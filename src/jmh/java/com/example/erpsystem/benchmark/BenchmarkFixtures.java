@@ -0,0 +1,75 @@
+package com.example.erpsystem.benchmark;
+
+import com.example.erpsystem.dto.EmployeeData;
+import com.example.erpsystem.model.SalaryEntity;
+
+import java.math.BigDecimal;
+
+/**
+ * Employee records shaped like production data: Arabic and English names, titles,
+ * addresses and companies, 14 digit national ids and salaries across the tax brackets.
+ */
+final class BenchmarkFixtures {
+
+    private static final String[][] PEOPLE = {
+            {"Ahmed Mohamed Ali", "أحمد محمد علي", "Sales Representative", "مندوب مبيعات",
+                    "Bachelor of Commerce", "بكالوريوس تجارة", "12 El-Tahrir St, Dokki, Giza", "١٢ شارع التحرير، الدقي، الجيزة"},
+            {"Mona Abdelrahman Hassan", "منى عبد الرحمن حسن", "Accountant", "محاسب",
+                    "Bachelor of Accounting", "بكالوريوس محاسبة", "5 Nasr Road, Nasr City, Cairo", "٥ طريق النصر، مدينة نصر، القاهرة"},
+            {"Mahmoud Sayed Ibrahim", "محمود سيد إبراهيم", "Warehouse Supervisor", "مشرف مخزن",
+                    "Technical Diploma", "دبلوم فني صناعي", "Block 14, 6th of October City", "مجاورة ١٤، مدينة السادس من أكتوبر"},
+            {"Youssef Khaled Mostafa", "يوسف خالد مصطفى", "Delivery Driver", "سائق توصيل",
+                    "Secondary School Certificate", "شهادة الثانوية العامة", "Zahraa El-Maadi, Cairo", "زهراء المعادي، القاهرة"}
+    };
+
+    private static final String[] NATIONAL_IDS = {"29501010123451", "28807151402876", "30112252103349", "29903030157712"};
+    private static final String[] START_DATES = {"2025-01-11", "2024-06-01", "2023-11-15", "2025-03-20"};
+    private static final String[] END_DATES = {"2026-01-10", "2025-05-31", "2024-11-14", "2026-03-19"};
+    private static final double[] GROSS_SALARIES = {6500, 14250.5, 32000, 85000};
+
+    private BenchmarkFixtures() {
+    }
+
+    static EmployeeData[] employees() {
+        EmployeeData[] employees = new EmployeeData[PEOPLE.length];
+        for (int i = 0; i < PEOPLE.length; i++) {
+            String[] person = PEOPLE[i];
+            EmployeeData data = new EmployeeData();
+            data.setId(i + 1);
+            data.setEmployeeNameInEnglish(person[0]);
+            data.setEmployeeNameInArabic(person[1]);
+            data.setTitleInEnglish(person[2]);
+            data.setTitleInArabic(person[3]);
+            data.setEducationInEnglish(person[4]);
+            data.setEducationInArabic(person[5]);
+            data.setAddressInEnglish(person[6]);
+            data.setAddressInArabic(person[7]);
+            data.setCompanyNameInEnglish("MaxAB Egypt for Trading");
+            data.setCompanyNameInArabic("ماكس اب مصر للتجارة");
+            data.setCompanyInsuranceNumber("654321");
+            data.setCompanyTaxNumber("512-345-678");
+            data.setNationalId(NATIONAL_IDS[i]);
+            data.setInsuranceNumber(String.valueOf(4081726 + i * 1117));
+            data.setJobTitleCode(String.valueOf(214300 + i * 17));
+            data.setStartDate(START_DATES[i]);
+            data.setEndDate(END_DATES[i]);
+            data.setBasicSalary(BigDecimal.valueOf(GROSS_SALARIES[i]));
+            data.setBasicSalaryInEnglish(String.valueOf((long) GROSS_SALARIES[i]));
+            data.setContributionSalary(String.valueOf((long) Math.min(GROSS_SALARIES[i], 14500)));
+            data.setContributionSalaryNumeric(BigDecimal.valueOf(Math.min(GROSS_SALARIES[i], 14500)));
+            employees[i] = data;
+        }
+        return employees;
+    }
+
+    static SalaryEntity[] salaries() {
+        SalaryEntity[] salaries = new SalaryEntity[GROSS_SALARIES.length];
+        for (int i = 0; i < GROSS_SALARIES.length; i++) {
+            SalaryEntity salary = new SalaryEntity();
+            salary.setGrossSalary(GROSS_SALARIES[i]);
+            salary.setContributionSalary(Math.min(GROSS_SALARIES[i], 14500));
+            salaries[i] = salary;
+        }
+        return salaries;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.erpsystem.benchmark;
+
+import com.example.erpsystem.dto.EmployeeData;
+import com.example.erpsystem.mapper.EmployeeMapper;
+import com.example.erpsystem.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeMapperBenchmark {
+
+    private EmployeeData[] employees;
+    private Employee[] entities;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        employees = BenchmarkFixtures.employees();
+        entities = new Employee[employees.length];
+        for (int i = 0; i < employees.length; i++) {
+            entities[i] = EmployeeMapper.toEntity(employees[i]);
+            entities[i].setId((long) employees[i].getId());
+        }
+    }
+
+    @Benchmark
+    public Employee toEntity() {
+        return EmployeeMapper.toEntity(employees[next++ % employees.length]);
+    }
+
+    @Benchmark
+    public EmployeeData toDto() {
+        return EmployeeMapper.toDto(entities[next++ % entities.length]);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.erpsystem.benchmark;
+
+import com.example.erpsystem.dto.EmployeeData;
+import com.example.erpsystem.service.ArabicFontService;
+import com.example.erpsystem.service.DocumentMemoryBudget;
+import com.example.erpsystem.service.FontRegistry;
+import com.example.erpsystem.service.NumberBoxRenderer;
+import com.example.erpsystem.service.PDFService;
+import com.example.erpsystem.service.PdfMetrics;
+import com.example.erpsystem.service.PdfTemplateRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One filled and flattened insurance form, cycling through the fixture employees so
+ * the shaping cache and font subsets see more than one set of values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsuranceFormBenchmark {
+
+    private PDFService pdfService;
+    private EmployeeData[] employees;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        FontRegistry fontRegistry = new FontRegistry();
+        ArabicFontService arabicFontService = new ArabicFontService(fontRegistry, 4096);
+        pdfService = new PDFService(new NumberBoxRenderer(arabicFontService), new PdfTemplateRegistry(),
+                arabicFontService, fontRegistry, new PdfMetrics(new SimpleMeterRegistry(), arabicFontService),
+                new DocumentMemoryBudget(Long.MAX_VALUE, Duration.ofSeconds(10), 64, Duration.ofSeconds(5)));
+        employees = BenchmarkFixtures.employees();
+    }
+
+    @Benchmark
+    public byte[] fillInsuranceForm() throws Exception {
+        EmployeeData employee = employees[next++ % employees.length];
+        return pdfService.fillInsuranceForm(employee);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.erpsystem.benchmark;
+
+import com.example.erpsystem.service.ArabicFontService;
+import com.example.erpsystem.service.FontRegistry;
+import com.example.erpsystem.service.LayoutSpec;
+import com.example.erpsystem.service.NumberBoxRenderer;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each draw primitive of the insurance form on an open page. The drawDigitsInGrid
+ * benchmarks cover what a compiled render plan calls per field, the others the legacy
+ * methods that draw their own boxes. The content stream is cleared after every call
+ * so it does not grow for the length of the run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumberBoxRendererBenchmark {
+
+    private NumberBoxRenderer renderer;
+    private Document document;
+    private PdfWriter writer;
+    private PdfContentByte canvas;
+    private BaseFont boxFont;
+    private BaseFont arabicFont;
+    private float[] nationalIdBoxes;
+    private float[] codeBoxes;
+    private float[] dateBoxes;
+    private float[] salaryBoxes;
+
+    @Setup
+    public void setUp() throws Exception {
+        ArabicFontService arabicFontService = new ArabicFontService(new FontRegistry(), 4096);
+        renderer = new NumberBoxRenderer(arabicFontService);
+        boxFont = BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+        arabicFont = arabicFontService.getArabicBaseFont();
+        // Same positions RenderPlan compiles for these fields
+        nationalIdBoxes = NumberBoxRenderer.boxPositions(LayoutSpec.Type.BOXES, 275, 14);
+        codeBoxes = NumberBoxRenderer.boxPositions(LayoutSpec.Type.CODE_WITH_SLASH, 246, 6);
+        dateBoxes = NumberBoxRenderer.boxPositions(LayoutSpec.Type.DATE_BOXES, 300, 8);
+        salaryBoxes = NumberBoxRenderer.boxPositions(LayoutSpec.Type.SALARY_BOXES, 5, 7);
+
+        document = new Document();
+        writer = PdfWriter.getInstance(document, OutputStream.nullOutputStream());
+        document.open();
+        canvas = writer.getDirectContent();
+    }
+
+    @TearDown
+    public void tearDown() {
+        // Every draw was cleared again; close the page as if it had content
+        writer.setPageEmpty(false);
+        document.close();
+    }
+
+    @Benchmark
+    public void drawProfessionalBoxes() throws Exception {
+        renderer.drawProfessionalBoxes(canvas, boxFont, "29501010123451", 275, 550, "nationalId", 0.6f);
+        canvas.reset();
+    }
+
+    @Benchmark
+    public void drawNumberWithSlashSeparator() throws Exception {
+        renderer.drawNumberWithSlashSeparator(canvas, boxFont, "214300", 246, 492, "jobTitleCode");
+        canvas.reset();
+    }
+
+    @Benchmark
+    public void drawDateInBoxes() throws Exception {
+        renderer.drawDateInBoxes(canvas, boxFont, "2025-01-11", 300, 462, "startDate");
+        canvas.reset();
+    }
+
+    @Benchmark
+    public void drawSalaryInBoxes() throws Exception {
+        renderer.drawSalaryInBoxes(canvas, boxFont, "14250.5", 5, 387, "basicSalaryInEnglish", 7);
+        canvas.reset();
+    }
+
+    @Benchmark
+    public void drawDigitsInGridBoxes() {
+        renderer.drawDigitsInGrid(canvas, boxFont, LayoutSpec.Type.BOXES, "29501010123451", nationalIdBoxes, 550,
+                0.6f, "nationalId");
+        canvas.reset();
+    }
+
+    @Benchmark
+    public void drawDigitsInGridCode() {
+        renderer.drawDigitsInGrid(canvas, boxFont, LayoutSpec.Type.CODE_WITH_SLASH, "214300", codeBoxes, 492,
+                0.6f, "jobTitleCode");
+        canvas.reset();
+    }
+
+    @Benchmark
+    public void drawDigitsInGridDate() {
+        renderer.drawDigitsInGrid(canvas, boxFont, LayoutSpec.Type.DATE_BOXES, "2025-01-11", dateBoxes, 462,
+                0.6f, "startDate");
+        canvas.reset();
+    }
+
+    @Benchmark
+    public void drawDigitsInGridSalary() {
+        renderer.drawDigitsInGrid(canvas, boxFont, LayoutSpec.Type.SALARY_BOXES, "14250.5", salaryBoxes, 387,
+                0.6f, "basicSalaryInEnglish");
+        canvas.reset();
+    }
+
+    @Benchmark
+    public void drawArabicTextAtPosition() {
+        renderer.drawArabicTextAtPosition(canvas, arabicFont, "ماكس اب مصر للتجارة", 480, 650, 14, "companyNameInArabic");
+        canvas.reset();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.erpsystem.benchmark;
+
+import com.example.erpsystem.model.SalaryEntity;
+import com.example.erpsystem.service.SalaryCalculationService;
+import com.example.erpsystem.service.SalaryColumns;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Net salary and insurance shares for gross salaries from the lowest to a high tax bracket,
+ * one salary entity at a time and as a columnar batch of {@value #BATCH_SIZE}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SalaryCalculationBenchmark {
+
+    static final int BATCH_SIZE = 1000;
+
+    private final SalaryCalculationService salaryCalculationService = new SalaryCalculationService();
+    private SalaryEntity[] salaries;
+    private int next;
+    private double[] grossSalaries;
+    private double[] contributionSalaries;
+    private SalaryColumns columns;
+
+    @Setup
+    public void setUp() {
+        salaries = BenchmarkFixtures.salaries();
+        grossSalaries = new double[BATCH_SIZE];
+        contributionSalaries = new double[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            SalaryEntity salary = salaries[i % salaries.length];
+            grossSalaries[i] = salary.getGrossSalary();
+            contributionSalaries[i] = salary.getContributionSalary();
+        }
+        columns = new SalaryColumns(BATCH_SIZE);
+    }
+
+    @Benchmark
+    public SalaryEntity calculateAndPopulateSalary() {
+        return salaryCalculationService.calculateAndPopulateSalary(salaries[next++ % salaries.length]);
+    }
+
+    // Divide by BATCH_SIZE to compare with calculateAndPopulateSalary
+    @Benchmark
+    public SalaryColumns calculateBatch() {
+        salaryCalculationService.calculateBatch(grossSalaries, contributionSalaries, BATCH_SIZE, columns);
+        return columns;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.erpsystem;
+
+import com.example.erpsystem.model.Employee;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+
+/**
+ * Cache regions of the Hibernate second-level cache. Regions are created here, sized
+ * from application properties, and Hibernate is handed the cache manager; a region
+ * Hibernate asks for that is not created here fails startup instead of silently
+ * getting an unbounded default.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    @Bean
+    public CacheManager entityCacheManager(@Value("${erp.employee-cache.max-entries:10000}") long employeeMaxEntries,
+                                           @Value("${erp.employee-cache.ttl:10m}") Duration employeeTtl) {
+        CacheManager cacheManager = Caching.getCachingProvider(EhcacheCachingProvider.class.getName())
+                .getCacheManager();
+        // Entries past the TTL are dropped, so rows changed outside the application are
+        // picked up again within that time
+        cacheManager.createCache(Employee.CACHE_REGION, Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                                ResourcePoolsBuilder.heap(employeeMaxEntries))
+                        .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(employeeTtl))));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
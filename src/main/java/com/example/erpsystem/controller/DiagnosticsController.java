@@ -0,0 +1,69 @@
+package com.example.erpsystem.controller;
+
+import com.example.erpsystem.service.ArabicFontService;
+import com.example.erpsystem.service.DatabaseIndexCheck;
+import com.example.erpsystem.service.DocumentMemoryBudget;
+import com.example.erpsystem.service.EmployeeCache;
+import com.example.erpsystem.service.FontRegistry;
+import com.example.erpsystem.service.PdfDocumentCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Read-only runtime statistics of the document pipeline caches and registries, and
+ * of the database indexes the frequent queries rely on.
+ */
+@RestController
+@RequestMapping("/api/diagnostics")
+public class DiagnosticsController {
+
+    private final FontRegistry fontRegistry;
+    private final ArabicFontService arabicFontService;
+    private final PdfDocumentCache pdfDocumentCache;
+    private final DocumentMemoryBudget documentMemoryBudget;
+    private final EmployeeCache employeeCache;
+    private final DatabaseIndexCheck databaseIndexCheck;
+
+    @Autowired
+    public DiagnosticsController(FontRegistry fontRegistry, ArabicFontService arabicFontService,
+                                 PdfDocumentCache pdfDocumentCache, DocumentMemoryBudget documentMemoryBudget,
+                                 EmployeeCache employeeCache, DatabaseIndexCheck databaseIndexCheck) {
+        this.fontRegistry = fontRegistry;
+        this.arabicFontService = arabicFontService;
+        this.pdfDocumentCache = pdfDocumentCache;
+        this.documentMemoryBudget = documentMemoryBudget;
+        this.employeeCache = employeeCache;
+        this.databaseIndexCheck = databaseIndexCheck;
+    }
+
+    @GetMapping("/fonts")
+    public ResponseEntity<FontRegistry.Stats> fontStats() {
+        return ResponseEntity.ok(fontRegistry.getStats());
+    }
+
+    @GetMapping("/shaping")
+    public ResponseEntity<ArabicFontService.ShapingStats> shapingStats() {
+        return ResponseEntity.ok(arabicFontService.getShapingStats());
+    }
+
+    @GetMapping("/pdf-cache")
+    public ResponseEntity<PdfDocumentCache.Stats> pdfCacheStats() {
+        return ResponseEntity.ok(pdfDocumentCache.getStats());
+    }
+
+    @GetMapping("/pdf-budget")
+    public ResponseEntity<DocumentMemoryBudget.Stats> pdfBudgetStats() {
+        return ResponseEntity.ok(documentMemoryBudget.getStats());
+    }
+
+    @GetMapping("/employee-cache")
+    public ResponseEntity<EmployeeCache.Stats> employeeCacheStats() {
+        return ResponseEntity.ok(employeeCache.getStats());
+    }
+
+    @GetMapping("/indexes")
+    public ResponseEntity<DatabaseIndexCheck.Stats> indexStats() {
+        return ResponseEntity.ok(databaseIndexCheck.getStats());
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.erpsystem.controller;
+
+import com.example.erpsystem.service.DocumentJob;
+import com.example.erpsystem.service.DocumentJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Status, completion events and results of document jobs. Jobs are submitted
+ * through the asynchronous variants of the /employees/download-* routes.
+ */
+@RestController
+@RequestMapping("/api/documents/jobs")
+public class DocumentJobController {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentJobController.class);
+
+    private static final long EVENTS_TIMEOUT_MS = Duration.ofMinutes(30).toMillis();
+
+    private final DocumentJobService documentJobService;
+
+    @Autowired
+    public DocumentJobController(DocumentJobService documentJobService) {
+        this.documentJobService = documentJobService;
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<DocumentJob> getJob(@PathVariable String id) {
+        return ResponseEntity.of(documentJobService.find(id));
+    }
+
+    /**
+     * Server-sent events: the current status right away, then the final status once
+     * the job is done or has failed.
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> jobEvents(@PathVariable String id) {
+        Optional<DocumentJob> found = documentJobService.find(id);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        DocumentJob job = found.get();
+
+        SseEmitter emitter = new SseEmitter(EVENTS_TIMEOUT_MS);
+        if (!job.isFinished()) {
+            try {
+                emitter.send(SseEmitter.event().name("status").data(job));
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+                return ResponseEntity.ok(emitter);
+            }
+        }
+
+        job.getCompletion().whenComplete((finished, error) -> {
+            try {
+                emitter.send(SseEmitter.event().name("status").data(finished));
+                emitter.complete();
+            } catch (IOException e) {
+                // Client went away
+                logger.debug("Could not send completion of job {}: {}", id, e.getMessage());
+                emitter.completeWithError(e);
+            }
+        });
+        return ResponseEntity.ok(emitter);
+    }
+
+    @GetMapping("/{id}/result")
+    public ResponseEntity<?> getResult(@PathVariable String id) {
+        Optional<DocumentJob> found = documentJobService.find(id);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        DocumentJob job = found.get();
+        if (job.getStatus() != DocumentJob.Status.DONE) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(job);
+        }
+
+        Resource result = new FileSystemResource(job.getResult());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(job.getContentType()));
+        headers.setContentDispositionFormData("attachment", job.getFileName());
+        headers.setContentLength(job.getResultSize());
+        return ResponseEntity.ok().headers(headers).body(result);
+    }
+}
@@ -1,17 +1,39 @@
 package com.example.erpsystem.controller;
 
+import com.example.erpsystem.dto.EmployeeChangeSet;
 import com.example.erpsystem.dto.EmployeeData;
+import com.example.erpsystem.dto.EmployeeExportFormat;
+import com.example.erpsystem.dto.EmployeePage;
+import com.example.erpsystem.dto.EmployeeSearchResult;
+import com.example.erpsystem.dto.EmployeeSuggestion;
+import com.example.erpsystem.dto.EmployeeSort;
 import com.example.erpsystem.repository.EmployeeRepository;
 import com.example.erpsystem.mapper.EmployeeMapper;
 import com.example.erpsystem.model.Employee;
+import com.example.erpsystem.service.ContractPdfRenderer;
+import com.example.erpsystem.service.DocumentBudgetExceededException;
+import com.example.erpsystem.service.DocumentJob;
+import com.example.erpsystem.service.DocumentJobService;
+import com.example.erpsystem.service.EmployeeAutocompleteIndex;
+import com.example.erpsystem.service.EmployeeCache;
+import com.example.erpsystem.service.EmployeeExportService;
+import com.example.erpsystem.service.EmployeeImportService;
+import com.example.erpsystem.service.EmployeeSearchService;
+import com.example.erpsystem.service.EmployeeService;
+import com.example.erpsystem.service.InsuranceBatchService;
 import com.example.erpsystem.service.PDFService;
+import com.example.erpsystem.service.PdfDocumentCache;
+import com.example.erpsystem.service.PdfTemplateRegistry;
 import com.example.erpsystem.service.TranslationService;
 import com.example.erpsystem.service.FileStorageService;
+import com.itextpdf.text.DocumentException;
+import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,9 +42,15 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Controller
@@ -30,21 +58,55 @@ public class EmployeeController {
 
     private static final Logger logger = LoggerFactory.getLogger(EmployeeController.class);
 
+    private static final String DEFAULT_PAGE_SIZE = "50";
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final EmployeeRepository employeeRepository;
     private final PDFService pdfService;
     private final TranslationService translationService;
     private final FileStorageService fileStorageService;
+    private final InsuranceBatchService insuranceBatchService;
+    private final PdfDocumentCache pdfDocumentCache;
+    private final DocumentJobService documentJobService;
+    private final ContractPdfRenderer contractPdfRenderer;
+    private final EmployeeSearchService employeeSearchService;
+    private final EmployeeAutocompleteIndex employeeAutocompleteIndex;
+    private final EmployeeCache employeeCache;
+    private final EmployeeImportService employeeImportService;
+    private final EmployeeExportService employeeExportService;
+    private final EmployeeService employeeService;
 
     // Constructor injection instead of field injection
     @Autowired
     public EmployeeController(EmployeeRepository employeeRepository,
                             PDFService pdfService,
                             TranslationService translationService,
-                            FileStorageService fileStorageService) {
+                            FileStorageService fileStorageService,
+                            InsuranceBatchService insuranceBatchService,
+                            PdfDocumentCache pdfDocumentCache,
+                            DocumentJobService documentJobService,
+                            ContractPdfRenderer contractPdfRenderer,
+                            EmployeeSearchService employeeSearchService,
+                            EmployeeAutocompleteIndex employeeAutocompleteIndex,
+                            EmployeeCache employeeCache,
+                            EmployeeImportService employeeImportService,
+                            EmployeeExportService employeeExportService,
+                            EmployeeService employeeService) {
         this.employeeRepository = employeeRepository;
         this.pdfService = pdfService;
         this.translationService = translationService;
         this.fileStorageService = fileStorageService;
+        this.insuranceBatchService = insuranceBatchService;
+        this.pdfDocumentCache = pdfDocumentCache;
+        this.documentJobService = documentJobService;
+        this.contractPdfRenderer = contractPdfRenderer;
+        this.employeeSearchService = employeeSearchService;
+        this.employeeAutocompleteIndex = employeeAutocompleteIndex;
+        this.employeeCache = employeeCache;
+        this.employeeImportService = employeeImportService;
+        this.employeeExportService = employeeExportService;
+        this.employeeService = employeeService;
     }
 
     // 1. Landing Page
@@ -98,6 +160,7 @@ public class EmployeeController {
             
             Employee employee = EmployeeMapper.toEntity(dto);
             Employee savedEmployee = employeeRepository.save(employee);
+            employeeAutocompleteIndex.put(savedEmployee);
             
             logger.info("Employee saved with ID: {}", savedEmployee.getId());
             
@@ -113,12 +176,38 @@ public class EmployeeController {
     }
 
     // 5. List all employees
+    // One keyset page of the table, or a page of search matches when q is given;
+    // counts come from count queries, not from the page
     @GetMapping("/view-employees")
-    public String viewEmployees(Model model) {
+    public String viewEmployees(@RequestParam(value = "q", required = false) String query,
+                                @RequestParam(value = "sort", required = false) String sort,
+                                @RequestParam(value = "after", required = false) Long after,
+                                @RequestParam(value = "before", required = false) Long before,
+                                @RequestParam(value = "page", defaultValue = "0") int pageNumber,
+                                @RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE) int size,
+                                Model model) {
         try {
-            List<Employee> employees = employeeRepository.findAll();
-            logger.info("Found {} employees", employees.size());
-            model.addAttribute("employees", employees);
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            if (query != null && !query.isBlank()) {
+                EmployeeSearchResult search = employeeSearchService.search(query, Math.max(0, pageNumber), pageSize);
+                logger.info("Search '{}' page {}: {} employees", search.getQuery(), search.getPage(),
+                        search.getEmployees().size());
+                model.addAttribute("search", search);
+                model.addAttribute("employees", search.getEmployees());
+            } else {
+                EmployeePage page = employeeRepository.findPage(EmployeeSort.fromParam(sort), after, before, pageSize);
+                logger.info("Listing {} employees (sort {}, after {}, before {})",
+                        page.getEmployees().size(), page.getSort().getParam(), after, before);
+                model.addAttribute("page", page);
+                model.addAttribute("employees", page.getEmployees());
+            }
+            model.addAttribute("sorts", EmployeeSort.values());
+
+            LocalDate today = LocalDate.now();
+            model.addAttribute("totalEmployees", employeeRepository.count());
+            model.addAttribute("activeEmployees", employeeRepository.countActiveOn(today));
+            model.addAttribute("contractsThisMonth",
+                    employeeRepository.countByCreatedAtGreaterThanEqual(today.withDayOfMonth(1)));
         } catch (Exception e) {
             logger.error("Error loading employees: {}", e.getMessage(), e);
             model.addAttribute("error", "Error loading employees: " + e.getMessage());
@@ -126,6 +215,77 @@ public class EmployeeController {
         return "view-employees";
     }
 
+    // 5b. Ranked employee search as JSON
+    @GetMapping("/api/employees/search")
+    @ResponseBody
+    public ResponseEntity<EmployeeSearchResult> searchEmployees(
+            @RequestParam("q") String query,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(employeeSearchService.search(query, Math.max(0, page),
+                Math.max(1, Math.min(size, MAX_PAGE_SIZE))));
+    }
+
+    // 5c. Type-ahead suggestions from the in-memory index
+    @GetMapping("/api/employees/autocomplete")
+    @ResponseBody
+    public ResponseEntity<List<EmployeeSuggestion>> autocompleteEmployees(
+            @RequestParam("q") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(employeeAutocompleteIndex.suggest(prefix,
+                Math.max(1, Math.min(limit, MAX_SUGGESTIONS))));
+    }
+
+    // 5d. Bulk import from .xlsx or .csv; rows that fail are listed in the report
+    @PostMapping("/api/employees/import")
+    @ResponseBody
+    public ResponseEntity<?> importEmployees(@RequestParam("file") MultipartFile file) {
+        try {
+            return ResponseEntity.ok(employeeImportService.importEmployees(file));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Employee import of {} rejected: {}", file.getOriginalFilename(), e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            logger.error("Employee import of {} failed: {}", file.getOriginalFilename(), e.getMessage(), e);
+            return ResponseEntity.badRequest().body(Map.of("error", "Could not read the file: " + e.getMessage()));
+        }
+    }
+
+    // 5e. Whole roster as NDJSON or CSV, streamed from a database cursor
+    @GetMapping("/api/employees/export")
+    public ResponseEntity<StreamingResponseBody> exportEmployees(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+        EmployeeExportFormat exportFormat;
+        try {
+            exportFormat = EmployeeExportFormat.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Employee export requested as {}", format);
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                employeeExportService.export(exportFormat, compressed);
+                compressed.finish();
+            } else {
+                employeeExportService.export(exportFormat, out);
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(gzip ? MediaType.parseMediaType("application/gzip")
+                : MediaType.parseMediaType(exportFormat.getMediaType() + ";charset=UTF-8"));
+        headers.setContentDispositionFormData("attachment",
+                "employees-" + LocalDate.now() + exportFormat.getExtension() + (gzip ? ".gz" : ""));
+        headers.setCacheControl("no-cache, no-store, must-revalidate");
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+
     // 6. View a specific employee
     @GetMapping("/employees/view/{id}")
     public String viewEmployee(@PathVariable Long id, Model model, RedirectAttributes redirectAttributes) {
@@ -181,36 +341,33 @@ public class EmployeeController {
             RedirectAttributes redirectAttributes) {
         try {
             logger.info("Updating employee with ID: {}", id);
-            Optional<Employee> optionalEmployee = employeeRepository.findById(id);
-            if (optionalEmployee.isPresent()) {
-                Employee existingEmployee = optionalEmployee.get();
-                
-                // Handle file upload
-                if (employeePhotoFile != null && !employeePhotoFile.isEmpty()) {
-                    try {
-                        String fileName = fileStorageService.storeFile(employeePhotoFile);
-                        updatedData.setEmployeePhoto("/uploads/" + fileName);
-                        logger.info("Employee photo updated: {}", fileName);
-                    } catch (Exception e) {
-                        logger.error("Error updating employee photo: {}", e.getMessage(), e);
-                        redirectAttributes.addFlashAttribute("error", "Error updating employee photo: " + e.getMessage());
-                        return "redirect:/employees/edit/" + id;
-                    }
+            // Handle file upload
+            if (employeePhotoFile != null && !employeePhotoFile.isEmpty()) {
+                try {
+                    String fileName = fileStorageService.storeFile(employeePhotoFile);
+                    updatedData.setEmployeePhoto("/uploads/" + fileName);
+                    logger.info("Employee photo updated: {}", fileName);
+                } catch (Exception e) {
+                    logger.error("Error updating employee photo: {}", e.getMessage(), e);
+                    redirectAttributes.addFlashAttribute("error", "Error updating employee photo: " + e.getMessage());
+                    return "redirect:/employees/edit/" + id;
+                }
+            }
+
+            Optional<EmployeeChangeSet> changes = employeeService.updateEmployee(id, updatedData);
+            if (changes.isPresent()) {
+                EmployeeChangeSet changeSet = changes.get();
+                if (changeSet.isChanged()) {
+                    pdfDocumentCache.invalidateEmployee(id);
+                    employeeCache.evict(id);
+                    employeeAutocompleteIndex.put(changeSet.getEmployee());
+                    logger.info("Employee {} updated, changed fields: {}", id, changeSet.getChangedFields());
+                    redirectAttributes.addFlashAttribute("success",
+                            "Employee updated successfully (" + String.join(", ", changeSet.getChangedFields()) + ")");
                 } else {
-                    // Keep existing photo if no new file uploaded
-                    updatedData.setEmployeePhoto(existingEmployee.getEmployeePhoto());
+                    logger.info("Employee {} submitted without changes", id);
+                    redirectAttributes.addFlashAttribute("success", "No changes to save");
                 }
-                
-                // Update the existing entity with new data
-                Employee updatedEmployee = EmployeeMapper.toEntity(updatedData);
-                updatedEmployee.setId(id);
-                updatedEmployee.setCreatedAt(existingEmployee.getCreatedAt());
-                // Remove setUpdatedAt() call since it doesn't exist in Employee entity
-                
-                Employee savedEmployee = employeeRepository.save(updatedEmployee);
-                logger.info("Employee updated successfully: {}", savedEmployee.getEmployeeNameInEnglish());
-                
-                redirectAttributes.addFlashAttribute("success", "Employee updated successfully");
             } else {
                 logger.warn("Employee not found for update with ID: {}", id);
                 redirectAttributes.addFlashAttribute("error", "Employee not found with ID: " + id);
@@ -241,6 +398,9 @@ public class EmployeeController {
                 }
                 
                 employeeRepository.deleteById(id);
+                pdfDocumentCache.invalidateEmployee(id);
+                employeeCache.evict(id);
+                employeeAutocompleteIndex.remove(id);
                 logger.info("Employee deleted successfully with ID: {}", id);
                 redirectAttributes.addFlashAttribute("success", "Employee deleted successfully");
             } else {
@@ -302,7 +462,7 @@ public class EmployeeController {
 
     // 12. Download insurance PDF
     @GetMapping("/employees/download-insurance/{id}")
-    public ResponseEntity<byte[]> downloadInsurancePDF(@PathVariable Long id) {
+    public ResponseEntity<StreamingResponseBody> downloadInsurancePDF(@PathVariable Long id, WebRequest webRequest) {
         try {
             logger.info("Generating insurance PDF for employee ID: {}", id);
             Optional<Employee> employee = employeeRepository.findById(id);
@@ -310,19 +470,33 @@ public class EmployeeController {
             if (employee.isPresent()) {
                 EmployeeData employeeData = EmployeeMapper.toDto(employee.get());
                 
-                byte[] pdfBytes = pdfService.fillInsuranceForm(employeeData);
+                // Same inputs, same template and layout -> same document and ETag
+                String key = pdfDocumentCache.key(PdfTemplateRegistry.INSURANCE, employeeData);
+                String etag = "\"" + key + "\"";
+                // Also sets the ETag header on the response
+                if (webRequest.checkNotModified(etag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+                }
+                
+                // Served from the cache or rendered straight into the response
+                StreamingResponseBody body = out -> {
+                    try {
+                        pdfDocumentCache.write(key, id, out, target -> pdfService.writeInsuranceForm(employeeData, target));
+                    } catch (DocumentException e) {
+                        throw new IOException("Could not generate insurance PDF for employee " + id, e);
+                    }
+                };
                 
                 HttpHeaders headers = new HttpHeaders();
                 headers.setContentType(MediaType.APPLICATION_PDF);
                 headers.setContentDispositionFormData("attachment", 
                     "insurance_" + employeeData.getEmployeeNameInEnglish() + ".pdf");
-                headers.setCacheControl("no-cache, no-store, must-revalidate");
-                headers.setPragma("no-cache");
-                headers.setExpires(0);
+                // Browsers may keep the file but must revalidate it with the ETag
+                headers.setCacheControl("private, no-cache");
                 
                 return ResponseEntity.ok()
                         .headers(headers)
-                        .body(pdfBytes);
+                        .body(body);
             } else {
                 logger.warn("Employee not found for PDF generation with ID: {}", id);
                 return ResponseEntity.notFound().build();
@@ -333,6 +507,156 @@ public class EmployeeController {
         }
     }
 
+    // 12b. Download insurance PDFs for many employees as one ZIP
+    @RequestMapping(value = "/employees/download-insurance/batch", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<StreamingResponseBody> downloadInsuranceBatch(
+            @RequestParam(value = "ids", required = false) List<Long> ids,
+            @RequestParam(value = "company", required = false) String company) {
+        try {
+            List<EmployeeData> employeeData = findBatchEmployees(ids, company);
+            if (employeeData == null) {
+                logger.warn("Insurance batch requested without ids or company");
+                return ResponseEntity.badRequest().build();
+            }
+            if (employeeData.isEmpty()) {
+                logger.warn("No employees found for insurance batch");
+                return ResponseEntity.notFound().build();
+            }
+
+            logger.info("Generating insurance ZIP for {} employees", employeeData.size());
+            StreamingResponseBody body = out -> insuranceBatchService.writeZip(employeeData, out);
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.parseMediaType("application/zip"));
+            headers.setContentDispositionFormData("attachment", batchFileName(company, ".zip"));
+            headers.setCacheControl("no-cache, no-store, must-revalidate");
+
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(body);
+        } catch (Exception e) {
+            logger.error("Error generating insurance ZIP: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // 12c. Download insurance forms for many employees merged into one print-ready PDF
+    @RequestMapping(value = "/employees/download-insurance/merged", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<StreamingResponseBody> downloadInsuranceMerged(
+            @RequestParam(value = "ids", required = false) List<Long> ids,
+            @RequestParam(value = "company", required = false) String company) {
+        try {
+            List<EmployeeData> employeeData = findBatchEmployees(ids, company);
+            if (employeeData == null) {
+                logger.warn("Merged insurance PDF requested without ids or company");
+                return ResponseEntity.badRequest().build();
+            }
+            if (employeeData.isEmpty()) {
+                logger.warn("No employees found for merged insurance PDF");
+                return ResponseEntity.notFound().build();
+            }
+
+            logger.info("Generating merged insurance PDF for {} employees", employeeData.size());
+            StreamingResponseBody body = out -> insuranceBatchService.writeMergedPdf(employeeData, out);
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_PDF);
+            headers.setContentDispositionFormData("attachment", batchFileName(company, ".pdf"));
+            headers.setCacheControl("no-cache, no-store, must-revalidate");
+
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(body);
+        } catch (Exception e) {
+            logger.error("Error generating merged insurance PDF: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // 12d. Queue an insurance PDF as a background job; poll or subscribe under /api/documents/jobs
+    @PostMapping("/employees/download-insurance/{id}/job")
+    @ResponseBody
+    public ResponseEntity<DocumentJob> queueInsurancePDF(@PathVariable Long id) {
+        Optional<Employee> employee = employeeRepository.findById(id);
+        if (employee.isEmpty()) {
+            logger.warn("Employee not found for insurance job with ID: {}", id);
+            return ResponseEntity.notFound().build();
+        }
+
+        EmployeeData employeeData = EmployeeMapper.toDto(employee.get());
+        String key = pdfDocumentCache.key(PdfTemplateRegistry.INSURANCE, employeeData);
+        DocumentJob job = documentJobService.submit(DocumentJob.Type.INSURANCE,
+                "insurance_" + employeeData.getEmployeeNameInEnglish() + ".pdf", MediaType.APPLICATION_PDF_VALUE,
+                out -> pdfDocumentCache.write(key, id, out, target -> pdfService.writeInsuranceForm(employeeData, target)));
+        return acceptedJob(job);
+    }
+
+    // 12e. Queue a ZIP of insurance PDFs as a background job
+    @PostMapping("/employees/download-insurance/batch/job")
+    @ResponseBody
+    public ResponseEntity<DocumentJob> queueInsuranceBatch(
+            @RequestParam(value = "ids", required = false) List<Long> ids,
+            @RequestParam(value = "company", required = false) String company) {
+        List<EmployeeData> employeeData = findBatchEmployees(ids, company);
+        if (employeeData == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (employeeData.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        DocumentJob job = documentJobService.submit(DocumentJob.Type.INSURANCE_ZIP,
+                batchFileName(company, ".zip"), "application/zip",
+                out -> insuranceBatchService.writeZip(employeeData, out));
+        return acceptedJob(job);
+    }
+
+    // 12f. Queue a merged print-ready insurance PDF as a background job
+    @PostMapping("/employees/download-insurance/merged/job")
+    @ResponseBody
+    public ResponseEntity<DocumentJob> queueInsuranceMerged(
+            @RequestParam(value = "ids", required = false) List<Long> ids,
+            @RequestParam(value = "company", required = false) String company) {
+        List<EmployeeData> employeeData = findBatchEmployees(ids, company);
+        if (employeeData == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (employeeData.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        DocumentJob job = documentJobService.submit(DocumentJob.Type.INSURANCE_MERGED,
+                batchFileName(company, ".pdf"), MediaType.APPLICATION_PDF_VALUE,
+                out -> insuranceBatchService.writeMergedPdf(employeeData, out));
+        return acceptedJob(job);
+    }
+
+    private ResponseEntity<DocumentJob> acceptedJob(DocumentJob job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/documents/jobs/" + job.getId()))
+                .body(job);
+    }
+
+    // Employees for a batch download, by explicit ids or by company; null when neither is given
+    private List<EmployeeData> findBatchEmployees(List<Long> ids, String company) {
+        List<Employee> employees;
+        if (ids != null && !ids.isEmpty()) {
+            employees = employeeRepository.findAllById(ids);
+        } else if (company != null && !company.trim().isEmpty()) {
+            employees = employeeRepository.findByCompanyNameInEnglishIgnoreCaseOrderByIdAsc(company.trim());
+        } else {
+            return null;
+        }
+        return employees.stream().map(EmployeeMapper::toDto).toList();
+    }
+
+    private String batchFileName(String company, String extension) {
+        if (company == null || company.trim().isEmpty()) {
+            return "insurance_forms" + extension;
+        }
+        return "insurance_" + company.trim().replaceAll("[^\\p{L}\\p{N}._-]+", "_") + extension;
+    }
+
     // 13. View employee contract (read-only view)
     @GetMapping("/employees/view-contract/{id}")
     public String viewEmployeeContract(@PathVariable Long id, Model model, RedirectAttributes redirectAttributes) {
@@ -356,9 +680,9 @@ public class EmployeeController {
         }
     }
 
-    // 14. Download contract PDF - FIXED METHOD NAME
+    // 14. Download contract PDF
     @GetMapping("/employees/download-contract/{id}")
-    public ResponseEntity<byte[]> downloadContractPDF(@PathVariable Long id) {
+    public ResponseEntity<StreamingResponseBody> downloadContractPDF(@PathVariable Long id) {
         try {
             logger.info("Generating contract PDF for employee ID: {}", id);
             Optional<Employee> employee = employeeRepository.findById(id);
@@ -366,8 +690,13 @@ public class EmployeeController {
             if (employee.isPresent()) {
                 EmployeeData employeeData = EmployeeMapper.toDto(employee.get());
                 
-                // Use existing method or create a placeholder
-                byte[] pdfBytes = generateContractPDF(employeeData);
+                StreamingResponseBody body = out -> {
+                    try {
+                        contractPdfRenderer.writeContract(employeeData, out);
+                    } catch (DocumentException e) {
+                        throw new IOException("Could not generate contract PDF for employee " + id, e);
+                    }
+                };
                 
                 HttpHeaders headers = new HttpHeaders();
                 headers.setContentType(MediaType.APPLICATION_PDF);
@@ -379,7 +708,7 @@ public class EmployeeController {
                 
                 return ResponseEntity.ok()
                         .headers(headers)
-                        .body(pdfBytes);
+                        .body(body);
             } else {
                 logger.warn("Employee not found for contract PDF generation with ID: {}", id);
                 return ResponseEntity.notFound().build();
@@ -390,16 +719,36 @@ public class EmployeeController {
         }
     }
 
-    // Placeholder method for contract PDF generation
-    private byte[] generateContractPDF(EmployeeData employeeData) {
-        try {
-            // If PDFService has a method for contracts, use it here
-            // For now, return empty bytes or throw exception
-            logger.warn("Contract PDF generation not implemented yet for: {}", employeeData.getEmployeeNameInEnglish());
-            return new byte[0];
-        } catch (Exception e) {
-            logger.error("Error in contract PDF generation: {}", e.getMessage());
-            throw new RuntimeException("Contract PDF generation not implemented");
+    // 14b. Queue a contract PDF as a background job
+    @PostMapping("/employees/download-contract/{id}/job")
+    @ResponseBody
+    public ResponseEntity<DocumentJob> queueContractPDF(@PathVariable Long id) {
+        Optional<Employee> employee = employeeRepository.findById(id);
+        if (employee.isEmpty()) {
+            logger.warn("Employee not found for contract job with ID: {}", id);
+            return ResponseEntity.notFound().build();
+        }
+
+        EmployeeData employeeData = EmployeeMapper.toDto(employee.get());
+        DocumentJob job = documentJobService.submit(DocumentJob.Type.CONTRACT,
+                "contract_" + employeeData.getEmployeeNameInEnglish() + ".pdf", MediaType.APPLICATION_PDF_VALUE,
+                out -> contractPdfRenderer.writeContract(employeeData, out));
+        return acceptedJob(job);
+    }
+
+    // Renders turned away by the document memory budget; streamed downloads reach
+    // here as long as nothing has been written yet
+    @ExceptionHandler(DocumentBudgetExceededException.class)
+    public ResponseEntity<String> documentBudgetExceeded(DocumentBudgetExceededException e,
+                                                         HttpServletResponse response) {
+        logger.warn("Rejecting document request: {}", e.getMessage());
+        if (!response.isCommitted()) {
+            // Drop the headers of the download that did not happen
+            response.reset();
         }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                .contentType(MediaType.TEXT_PLAIN)
+                .body("Too many documents are being generated right now, please try again shortly.");
     }
-}
\ No newline at end of file
+}
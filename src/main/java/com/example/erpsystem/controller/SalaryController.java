@@ -1,17 +1,22 @@
 // SalaryController.java - updated imports
 package com.example.erpsystem.controller;
 
+import com.example.erpsystem.dto.PayrollRunReport;
 import com.example.erpsystem.dto.SalaryRequestDTO;
 import com.example.erpsystem.dto.SalaryResponseDTO;
 import com.example.erpsystem.model.Employee;
 import com.example.erpsystem.model.SalaryEntity;
 import com.example.erpsystem.repository.SalaryRepository;
 import com.example.erpsystem.repository.EmployeeRepository;
+import com.example.erpsystem.service.PayrollRunService;
 import com.example.erpsystem.service.SalaryCalculationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.Date;
 import java.util.List;
 import java.util.HashMap;
@@ -31,6 +36,9 @@ public class SalaryController {
     
     @Autowired
     private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private PayrollRunService payrollRunService;
     
     @PostMapping("/calculate-net-salary")
     public ResponseEntity<Map<String, Object>> calculateNetSalary(@RequestBody SalaryRequestDTO request) {
@@ -60,6 +68,16 @@ public class SalaryController {
             Employee employee = employeeRepository.findById(request.getEmployeeId())
                     .orElseThrow(() -> new RuntimeException("Employee with ID " + request.getEmployeeId() + " not found"));
             
+            // At most one salary per employee and month (salary_employee_month_key)
+            YearMonth month = YearMonth.now();
+            if (!salaryRepository.findByEmployeeIdAndMonthAndYear(employee.getId(),
+                    month.getMonthValue(), month.getYear()).isEmpty()) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("status", "error");
+                errorResponse.put("error", "A salary for employee " + employee.getId() + " in " + month + " is already saved");
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+            }
+
             SalaryEntity salary = new SalaryEntity();
             salary.setEmployee(employee);
             salary.setGrossSalary(request.getGrossSalary());
@@ -92,6 +110,37 @@ public class SalaryController {
         }
     }
     
+    // Salaries of the month for every active employee not yet paid, e.g. ?month=2024-06
+    @PostMapping("/payroll-run")
+    public ResponseEntity<Map<String, Object>> runPayroll(
+            @RequestParam("month") String month,
+            @RequestParam(value = "company", required = false) String company,
+            @RequestParam(value = "employeeId", required = false) List<Long> employeeIds) {
+        YearMonth payrollMonth;
+        try {
+            payrollMonth = YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("status", "error");
+            errorResponse.put("error", "Month must be given as yyyy-MM: " + month);
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        try {
+            String companyFilter = company == null || company.isBlank() ? null : company.strip();
+            PayrollRunReport report = payrollRunService.run(payrollMonth, companyFilter, employeeIds);
+
+            Map<String, Object> successResponse = new HashMap<>();
+            successResponse.put("status", "success");
+            successResponse.put("data", report);
+            return ResponseEntity.ok(successResponse);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("status", "error");
+            errorResponse.put("error", "Payroll run failed: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
     @GetMapping("/employee/{employeeId}")
     public ResponseEntity<Map<String, Object>> getEmployeeSalaries(@PathVariable Long employeeId) {
         try {
@@ -0,0 +1,27 @@
+package com.example.erpsystem.dto;
+
+import com.example.erpsystem.model.Employee;
+
+import java.util.List;
+
+/**
+ * Outcome of an employee edit: the employee as now stored and the fields the edit
+ * actually changed. Nothing was written when no field changed.
+ */
+public class EmployeeChangeSet {
+
+    private final Employee employee;
+    private final List<String> changedFields;
+
+    public EmployeeChangeSet(Employee employee, List<String> changedFields) {
+        this.employee = employee;
+        this.changedFields = changedFields;
+    }
+
+    public Employee getEmployee() { return employee; }
+
+    /** Entity property names, e.g. basicSalary */
+    public List<String> getChangedFields() { return changedFields; }
+
+    public boolean isChanged() { return !changedFields.isEmpty(); }
+}
@@ -0,0 +1,36 @@
+package com.example.erpsystem.dto;
+
+/**
+ * File formats of the employee roster export.
+ */
+public enum EmployeeExportFormat {
+
+    /** One JSON object per line */
+    NDJSON("application/x-ndjson", ".ndjson"),
+    /** Header row with the same column names the import accepts */
+    CSV("text/csv", ".csv");
+
+    private final String mediaType;
+    private final String extension;
+
+    EmployeeExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() { return mediaType; }
+
+    public String getExtension() { return extension; }
+
+    /**
+     * @throws IllegalArgumentException for an unknown format
+     */
+    public static EmployeeExportFormat fromParam(String param) {
+        for (EmployeeExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(param)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export format: " + param);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.erpsystem.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk employee import. Every failed row is counted, but only the first
+ * rows' errors are listed, so a file with the wrong layout gives a short report.
+ */
+public class EmployeeImportReport {
+
+    private final String fileName;
+    private final int rowsRead;
+    private final int imported;
+    private final int failed;
+    private final List<RowError> errors;
+    private final List<String> ignoredColumns;
+    private final long elapsedMillis;
+
+    public EmployeeImportReport(String fileName, int rowsRead, int imported, int failed, List<RowError> errors,
+                                List<String> ignoredColumns, long elapsedMillis) {
+        this.fileName = fileName;
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.failed = failed;
+        this.errors = errors;
+        this.ignoredColumns = ignoredColumns;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getFileName() { return fileName; }
+
+    /** Data rows in the file, not counting the header and blank rows */
+    public int getRowsRead() { return rowsRead; }
+
+    public int getImported() { return imported; }
+
+    public int getFailed() { return failed; }
+
+    public List<RowError> getErrors() { return errors; }
+
+    public boolean isErrorsTruncated() { return errors.size() < failed; }
+
+    /** Header cells that match no employee field; their columns were skipped */
+    public List<String> getIgnoredColumns() { return ignoredColumns; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public static class RowError {
+
+        private final int row;
+        private final String message;
+
+        public RowError(int row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        /** One-based row number in the file, as a spreadsheet program shows it */
+        public int getRow() { return row; }
+
+        public String getMessage() { return message; }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.erpsystem.dto;
+
+import java.util.List;
+
+/**
+ * A page of the employee list. Neighbouring pages are addressed by the id of the
+ * first or last row (keyset paging), so no page costs more than its own rows.
+ */
+public class EmployeePage {
+
+    private final List<EmployeeSummary> employees;
+    private final EmployeeSort sort;
+    private final int size;
+    private final boolean hasPrevious;
+    private final boolean hasNext;
+
+    public EmployeePage(List<EmployeeSummary> employees, EmployeeSort sort, int size,
+                        boolean hasPrevious, boolean hasNext) {
+        this.employees = employees;
+        this.sort = sort;
+        this.size = size;
+        this.hasPrevious = hasPrevious;
+        this.hasNext = hasNext;
+    }
+
+    public List<EmployeeSummary> getEmployees() { return employees; }
+
+    public EmployeeSort getSort() { return sort; }
+
+    public int getSize() { return size; }
+
+    public boolean isHasPrevious() { return hasPrevious; }
+
+    public boolean isHasNext() { return hasNext; }
+
+    /** Cursor of the previous page, null on the first page */
+    public Long getFirstId() {
+        return employees.isEmpty() ? null : employees.get(0).getId();
+    }
+
+    /** Cursor of the next page */
+    public Long getLastId() {
+        return employees.isEmpty() ? null : employees.get(employees.size() - 1).getId();
+    }
+}
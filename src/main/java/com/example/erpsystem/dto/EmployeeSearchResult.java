@@ -0,0 +1,43 @@
+package com.example.erpsystem.dto;
+
+import java.util.List;
+
+/**
+ * A page of ranked search matches. Matches are few compared to the table, so search
+ * pages by number rather than by keyset.
+ */
+public class EmployeeSearchResult {
+
+    private final String query;
+    private final List<EmployeeSummary> employees;
+    private final int page;
+    private final int size;
+    private final boolean hasNext;
+    private final boolean truncated;
+
+    public EmployeeSearchResult(String query, List<EmployeeSummary> employees, int page, int size, boolean hasNext,
+                                boolean truncated) {
+        this.query = query;
+        this.employees = employees;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.truncated = truncated;
+    }
+
+    public String getQuery() { return query; }
+
+    public List<EmployeeSummary> getEmployees() { return employees; }
+
+    /** Zero-based page number */
+    public int getPage() { return page; }
+
+    public int getSize() { return size; }
+
+    public boolean isHasPrevious() { return page > 0; }
+
+    public boolean isHasNext() { return hasNext; }
+
+    /** More employees matched than are ranked; a more specific query may find others */
+    public boolean isTruncated() { return truncated; }
+}
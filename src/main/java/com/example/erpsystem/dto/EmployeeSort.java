@@ -0,0 +1,49 @@
+package com.example.erpsystem.dto;
+
+import java.util.Locale;
+
+/**
+ * Sort orders of the employee list. Every order ends with the id in the same
+ * direction, so rows with equal keys still have a stable position for keyset paging.
+ */
+public enum EmployeeSort {
+
+    ID("id", "Employee ID", false),
+    NEWEST("id", "Newest first", true),
+    NAME("employeeNameInEnglish", "Name", false),
+    START_DATE("startDate", "Latest start date", true);
+
+    private final String property;
+    private final String label;
+    private final boolean descending;
+
+    EmployeeSort(String property, String label, boolean descending) {
+        this.property = property;
+        this.label = label;
+        this.descending = descending;
+    }
+
+    /** Employee entity property the order is keyed on */
+    public String getProperty() { return property; }
+
+    public String getLabel() { return label; }
+
+    public boolean isDescending() { return descending; }
+
+    public boolean isById() { return property.equals("id"); }
+
+    /** Value used in the sort request parameter, e.g. start-date */
+    public String getParam() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /** Unknown or missing values fall back to ID */
+    public static EmployeeSort fromParam(String param) {
+        for (EmployeeSort sort : values()) {
+            if (sort.getParam().equalsIgnoreCase(param)) {
+                return sort;
+            }
+        }
+        return ID;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.erpsystem.dto;
+
+/**
+ * An autocomplete entry: just enough of an employee to show in the suggestion list
+ * and open the employee page.
+ */
+public class EmployeeSuggestion {
+
+    private final Long id;
+    private final String employeeNameInEnglish;
+    private final String employeeNameInArabic;
+    private final String nationalId;
+
+    public EmployeeSuggestion(Long id, String employeeNameInEnglish, String employeeNameInArabic, String nationalId) {
+        this.id = id;
+        this.employeeNameInEnglish = employeeNameInEnglish;
+        this.employeeNameInArabic = employeeNameInArabic;
+        this.nationalId = nationalId;
+    }
+
+    public Long getId() { return id; }
+
+    public String getEmployeeNameInEnglish() { return employeeNameInEnglish; }
+
+    public String getEmployeeNameInArabic() { return employeeNameInArabic; }
+
+    public String getNationalId() { return nationalId; }
+}
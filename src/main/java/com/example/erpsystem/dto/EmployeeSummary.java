@@ -0,0 +1,48 @@
+package com.example.erpsystem.dto;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the employee list: only the columns the table shows, selected
+ * straight into this class by a JPQL constructor expression.
+ */
+public class EmployeeSummary {
+
+    private final Long id;
+    private final String employeeNameInEnglish;
+    private final String titleInEnglish;
+    private final String nationalId;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final String employeePhoto;
+
+    public EmployeeSummary(Long id, String employeeNameInEnglish, String titleInEnglish, String nationalId,
+                           LocalDate startDate, LocalDate endDate, String employeePhoto) {
+        this.id = id;
+        this.employeeNameInEnglish = employeeNameInEnglish;
+        this.titleInEnglish = titleInEnglish;
+        this.nationalId = nationalId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.employeePhoto = employeePhoto;
+    }
+
+    public Long getId() { return id; }
+
+    public String getEmployeeNameInEnglish() { return employeeNameInEnglish; }
+
+    public String getTitleInEnglish() { return titleInEnglish; }
+
+    public String getNationalId() { return nationalId; }
+
+    public LocalDate getStartDate() { return startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+
+    public String getEmployeePhoto() { return employeePhoto; }
+
+    /** Same rule as the active count: no end date, or one that has not passed */
+    public boolean isActive() {
+        return endDate == null || !endDate.isBefore(LocalDate.now());
+    }
+}
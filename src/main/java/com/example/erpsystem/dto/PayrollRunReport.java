@@ -0,0 +1,86 @@
+package com.example.erpsystem.dto;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Outcome of a monthly payroll run. Totals cover the salaries saved by this run only.
+ * Every failed employee is counted, but only the first failures are listed.
+ */
+public class PayrollRunReport {
+
+    private final YearMonth month;
+    private final String company;
+    private final int employees;
+    private final int saved;
+    private final long alreadyPaid;
+    private final int failed;
+    private final List<EmployeeError> errors;
+    private final Totals totals;
+    private final Timings timings;
+
+    public PayrollRunReport(YearMonth month, String company, int employees, int saved, long alreadyPaid,
+                            int failed, List<EmployeeError> errors, Totals totals, Timings timings) {
+        this.month = month;
+        this.company = company;
+        this.employees = employees;
+        this.saved = saved;
+        this.alreadyPaid = alreadyPaid;
+        this.failed = failed;
+        this.errors = errors;
+        this.totals = totals;
+        this.timings = timings;
+    }
+
+    public String getMonth() { return month.toString(); }
+
+    /** Company filter, null when the run covered every company */
+    public String getCompany() { return company; }
+
+    /** Active employees in the month without a salary for it when the run started */
+    public int getEmployees() { return employees; }
+
+    public int getSaved() { return saved; }
+
+    /** Active employees skipped because a salary for the month was already saved */
+    public long getAlreadyPaid() { return alreadyPaid; }
+
+    public int getFailed() { return failed; }
+
+    public List<EmployeeError> getErrors() { return errors; }
+
+    public boolean isErrorsTruncated() { return errors.size() < failed; }
+
+    public Totals getTotals() { return totals; }
+
+    public Timings getTimings() { return timings; }
+
+    /**
+     * Sums over the saved salaries, rounded to two decimals.
+     */
+    public record Totals(double grossSalary, double netSalary, double employeeShareSocInsurance,
+                         double companyShareSocInsurance, double taxesBasic, double martyrsFund) {
+    }
+
+    /**
+     * @param computeMillis time spent calculating salaries, summed over the workers
+     * @param writeMillis   time spent inserting and committing, summed over the workers
+     */
+    public record Timings(long elapsedMillis, long computeMillis, long writeMillis, int workers) {
+    }
+
+    public static class EmployeeError {
+
+        private final Long employeeId;
+        private final String message;
+
+        public EmployeeError(Long employeeId, String message) {
+            this.employeeId = employeeId;
+            this.message = message;
+        }
+
+        public Long getEmployeeId() { return employeeId; }
+
+        public String getMessage() { return message; }
+    }
+}
@@ -6,8 +6,42 @@ import com.example.erpsystem.model.Employee;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 public class EmployeeMapper {
+
+    // Fields an edit may change; id and createdAt are fixed once the employee exists
+    private static final List<EditableField<?>> EDITABLE_FIELDS = List.of(
+        new EditableField<>("startDate", Employee::getStartDate, Employee::setStartDate),
+        new EditableField<>("endDate", Employee::getEndDate, Employee::setEndDate),
+        new EditableField<>("companyNameInEnglish", Employee::getCompanyNameInEnglish, Employee::setCompanyNameInEnglish),
+        new EditableField<>("companyNameInArabic", Employee::getCompanyNameInArabic, Employee::setCompanyNameInArabic),
+        new EditableField<>("employeeNameInEnglish", Employee::getEmployeeNameInEnglish, Employee::setEmployeeNameInEnglish),
+        new EditableField<>("employeeNameInArabic", Employee::getEmployeeNameInArabic, Employee::setEmployeeNameInArabic),
+        new EditableField<>("nationalId", Employee::getNationalId, Employee::setNationalId),
+        new EditableField<>("insuranceNumber", Employee::getInsuranceNumber, Employee::setInsuranceNumber),
+        new EditableField<>("titleInEnglish", Employee::getTitleInEnglish, Employee::setTitleInEnglish),
+        new EditableField<>("titleInArabic", Employee::getTitleInArabic, Employee::setTitleInArabic),
+        new EditableField<>("educationInEnglish", Employee::getEducationInEnglish, Employee::setEducationInEnglish),
+        new EditableField<>("educationInArabic", Employee::getEducationInArabic, Employee::setEducationInArabic),
+        new EditableField<>("addressInEnglish", Employee::getAddressInEnglish, Employee::setAddressInEnglish),
+        new EditableField<>("addressInArabic", Employee::getAddressInArabic, Employee::setAddressInArabic),
+        new EditableField<>("basicSalary", Employee::getBasicSalary, Employee::setBasicSalary),
+        new EditableField<>("basicSalaryInEnglishText", Employee::getBasicSalaryInEnglishText, Employee::setBasicSalaryInEnglishText),
+        new EditableField<>("basicSalaryInArabicText", Employee::getBasicSalaryInArabicText, Employee::setBasicSalaryInArabicText),
+        new EditableField<>("companyInsuranceNumber", Employee::getCompanyInsuranceNumber, Employee::setCompanyInsuranceNumber),
+        new EditableField<>("companyTaxNumber", Employee::getCompanyTaxNumber, Employee::setCompanyTaxNumber),
+        new EditableField<>("jobTitleCode", Employee::getJobTitleCode, Employee::setJobTitleCode),
+        new EditableField<>("contributionSalary", Employee::getContributionSalary, Employee::setContributionSalary),
+        new EditableField<>("employeePhoto", Employee::getEmployeePhoto, Employee::setEmployeePhoto),
+        new EditableField<>("variableSalaryNumber", Employee::getVariableSalaryNumber, Employee::setVariableSalaryNumber),
+        new EditableField<>("variableSalaryInEnglishText", Employee::getVariableSalaryInEnglishText, Employee::setVariableSalaryInEnglishText),
+        new EditableField<>("variableSalaryInArabicText", Employee::getVariableSalaryInArabicText, Employee::setVariableSalaryInArabicText)
+    );
     
     public static Employee toEntity(EmployeeData dto) {
         Employee entity = new Employee();
@@ -171,6 +205,52 @@ public class EmployeeMapper {
             return number.toString();
         }
     }
-    
-}
 
+    /**
+     * Copy onto {@code target} only the fields of {@code source} that differ from it, so a
+     * managed entity becomes dirty in just those columns. Amounts are compared by value
+     * (5000 equals 5000.00) and an empty text counts as no text.
+     *
+     * @return names of the changed fields; empty when the two already match
+     */
+    public static List<String> applyChanges(Employee source, Employee target) {
+        List<String> changed = new ArrayList<>();
+        for (EditableField<?> field : EDITABLE_FIELDS) {
+            if (!field.matches(source, target)) {
+                changed.add(field.name());
+            }
+        }
+        // Diffed before copying: setStartDate also resets the end date, which the
+        // endDate entry (listed after it) then sets back to the submitted value
+        for (EditableField<?> field : EDITABLE_FIELDS) {
+            if (!field.matches(source, target)) {
+                field.copy(source, target);
+            }
+        }
+        return changed;
+    }
+
+    private static boolean sameValue(Object a, Object b) {
+        if (a instanceof String text && text.isEmpty()) {
+            a = null;
+        }
+        if (b instanceof String text && text.isEmpty()) {
+            b = null;
+        }
+        if (a instanceof BigDecimal x && b instanceof BigDecimal y) {
+            return x.compareTo(y) == 0;
+        }
+        return Objects.equals(a, b);
+    }
+
+    private record EditableField<T>(String name, Function<Employee, T> getter, BiConsumer<Employee, T> setter) {
+
+        boolean matches(Employee source, Employee target) {
+            return sameValue(getter.apply(source), getter.apply(target));
+        }
+
+        void copy(Employee source, Employee target) {
+            setter.accept(target, getter.apply(source));
+        }
+    }
+}
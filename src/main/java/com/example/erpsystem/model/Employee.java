@@ -1,15 +1,30 @@
 package com.example.erpsystem.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "employee")  // lowercase table name is recommended
+// Loads by id go through the second-level cache; writes through JPA update it on commit
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Employee.CACHE_REGION)
+// Updates set only the columns that changed instead of all of them
+@DynamicUpdate
 public class Employee {
+
+    public static final String CACHE_REGION = "employee";
     
+    // Ids are taken from the sequence 50 at a time, so inserts can be sent in JDBC
+    // batches; an IDENTITY column forces one round trip per insert. The sequence was
+    // moved past the existing ids by db/migration/V3__employee_id_sequence.sql.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_seq")
+    @SequenceGenerator(name = "employee_seq", sequenceName = "employee_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "start_date")
@@ -7,8 +7,11 @@ import java.util.Date;
 @Entity
 @Table(name = "salary")
 public class SalaryEntity {
+    // Sequence ids in blocks of 50 let payroll runs batch their inserts
+    // (db/migration/V5__salary_id_sequence.sql)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "salary_seq")
+    @SequenceGenerator(name = "salary_seq", sequenceName = "salary_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
@@ -0,0 +1,18 @@
+package com.example.erpsystem.repository;
+
+import com.example.erpsystem.dto.EmployeePage;
+import com.example.erpsystem.dto.EmployeeSort;
+
+/**
+ * Keyset-paged employee list, mixed into {@link EmployeeRepository}.
+ */
+public interface EmployeeListRepository {
+
+    /**
+     * One page of the list in the given order. With {@code after} the page starts
+     * right after that employee, with {@code before} it ends right before it; with
+     * neither it is the first page. A cursor whose employee no longer exists also
+     * gives the first page.
+     */
+    EmployeePage findPage(EmployeeSort sort, Long after, Long before, int size);
+}
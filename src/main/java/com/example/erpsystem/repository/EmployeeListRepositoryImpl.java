@@ -0,0 +1,101 @@
+package com.example.erpsystem.repository;
+
+import com.example.erpsystem.dto.EmployeePage;
+import com.example.erpsystem.dto.EmployeeSort;
+import com.example.erpsystem.dto.EmployeeSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Seeks to the cursor row with a WHERE clause on (sort key, id) instead of an
+ * OFFSET, so page 500 is as cheap as page 1. The sort key of the cursor is read by
+ * primary key, which keeps the cursor in URLs down to a single id.
+ * <p>
+ * Null sort keys go last in both directions. The previous page is read in the
+ * reverse order, nulls first, and flipped back.
+ */
+class EmployeeListRepositoryImpl implements EmployeeListRepository {
+
+    private static final String SELECT_SUMMARY = "select new com.example.erpsystem.dto.EmployeeSummary("
+            + "e.id, e.employeeNameInEnglish, e.titleInEnglish, e.nationalId, e.startDate, e.endDate, e.employeePhoto)"
+            + " from Employee e";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public EmployeePage findPage(EmployeeSort sort, Long after, Long before, int size) {
+        Long cursor = after != null ? after : before;
+        boolean backward = after == null && before != null;
+        Object cursorKey = null;
+        if (cursor != null && !sort.isById()) {
+            List<?> keys = entityManager.createQuery(
+                            "select e." + sort.getProperty() + " from Employee e where e.id = :id")
+                    .setParameter("id", cursor)
+                    .getResultList();
+            if (keys.isEmpty()) {
+                cursor = null;
+                backward = false;
+            } else {
+                cursorKey = keys.get(0);
+            }
+        }
+
+        // Reading backwards flips the direction and moves nulls to the front
+        boolean descending = sort.isDescending() != backward;
+        boolean nullsLast = !backward;
+
+        StringBuilder jpql = new StringBuilder(SELECT_SUMMARY);
+        if (cursor != null) {
+            jpql.append(" where ").append(seek(sort, cursorKey, descending, nullsLast));
+        }
+        jpql.append(" order by ");
+        if (!sort.isById()) {
+            jpql.append("e.").append(sort.getProperty()).append(descending ? " desc" : " asc")
+                    .append(nullsLast ? " nulls last" : " nulls first").append(", ");
+        }
+        jpql.append("e.id").append(descending ? " desc" : " asc");
+
+        TypedQuery<EmployeeSummary> query = entityManager.createQuery(jpql.toString(), EmployeeSummary.class);
+        if (cursor != null) {
+            query.setParameter("id", cursor);
+            if (cursorKey != null) {
+                query.setParameter("key", cursorKey);
+            }
+        }
+        // One extra row tells whether there is more in this direction
+        List<EmployeeSummary> rows = new ArrayList<>(query.setMaxResults(size + 1).getResultList());
+        boolean more = rows.size() > size;
+        if (more) {
+            rows.remove(size);
+        }
+
+        if (backward) {
+            Collections.reverse(rows);
+            return new EmployeePage(rows, sort, size, more, true);
+        }
+        return new EmployeePage(rows, sort, size, cursor != null, more);
+    }
+
+    /**
+     * Rows after (key, id) in the order (key dir, id dir) with nulls first or last.
+     */
+    private static String seek(EmployeeSort sort, Object cursorKey, boolean descending, boolean nullsLast) {
+        String op = descending ? " < " : " > ";
+        if (sort.isById()) {
+            return "e.id" + op + ":id";
+        }
+        String key = "e." + sort.getProperty();
+        if (cursorKey != null) {
+            String seek = "(" + key + op + ":key or (" + key + " = :key and e.id" + op + ":id)";
+            return seek + (nullsLast ? " or " + key + " is null)" : ")");
+        }
+        String inNulls = "(" + key + " is null and e.id" + op + ":id)";
+        return nullsLast ? inNulls : "(" + key + " is not null or " + inNulls + ")";
+    }
+}
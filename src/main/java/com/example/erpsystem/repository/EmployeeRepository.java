@@ -1,15 +1,30 @@
 package com.example.erpsystem.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.erpsystem.dto.EmployeeSuggestion;
 import com.example.erpsystem.model.Employee;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeListRepository {
     List<Employee> findByEmployeeNameInEnglishContainingIgnoreCase(String name);
     List<Employee> findByCompanyNameInEnglishContainingIgnoreCase(String companyName);
+    List<Employee> findByCompanyNameInEnglishIgnoreCaseOrderByIdAsc(String companyName);
 
+    // Employees whose contract has not ended on the given day
+    @Query("SELECT COUNT(e) FROM Employee e WHERE e.endDate IS NULL OR e.endDate >= :day")
+    long countActiveOn(@Param("day") LocalDate day);
+
+    long countByCreatedAtGreaterThanEqual(LocalDate since);
+
+    // Columns of the autocomplete index, without loading whole entities
+    @Query("SELECT new com.example.erpsystem.dto.EmployeeSuggestion("
+            + "e.id, e.employeeNameInEnglish, e.employeeNameInArabic, e.nationalId) FROM Employee e")
+    List<EmployeeSuggestion> findAllSuggestions();
 }
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Repository;
 
 import com.example.erpsystem.model.SalaryEntity;
 
+import java.time.YearMonth;
 import java.util.Date;
 import java.util.List;
 
@@ -27,11 +28,14 @@ public interface SalaryRepository extends JpaRepository<SalaryEntity, Long> {
     @Query("SELECT s FROM SalaryEntity s WHERE s.employee.id = :employeeId ORDER BY s.salaryDate DESC")
     List<SalaryEntity> findLatestByEmployeeId(@Param("employeeId") Long employeeId);
     
-    // Check if salary already exists for an employee in a specific month
-    @Query("SELECT s FROM SalaryEntity s WHERE s.employee.id = :employeeId AND YEAR(s.salaryDate) = :year AND MONTH(s.salaryDate) = :month")
-    List<SalaryEntity> findByEmployeeIdAndMonthAndYear(@Param("employeeId") Long employeeId, 
-                                                      @Param("month") int month, 
-                                                      @Param("year") int year);
+    // Check if salary already exists for an employee in a specific month. Asked as a date
+    // range, which the (employee_id, salary_date) index answers; YEAR() and MONTH() on the
+    // column would be evaluated row by row.
+    default List<SalaryEntity> findByEmployeeIdAndMonthAndYear(Long employeeId, int month, int year) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return findByEmployeeIdAndSalaryDateBetween(employeeId,
+                java.sql.Date.valueOf(yearMonth.atDay(1)), java.sql.Date.valueOf(yearMonth.atEndOfMonth()));
+    }
     
     // Custom query to get salary statistics
     @Query("SELECT AVG(s.netSalary), MIN(s.netSalary), MAX(s.netSalary) FROM SalaryEntity s WHERE s.employee.id = :employeeId")
@@ -3,18 +3,44 @@ package com.example.erpsystem.service;
 import com.ibm.icu.text.ArabicShaping;
 import com.ibm.icu.text.ArabicShapingException;
 import com.ibm.icu.text.Bidi;
+import com.itextpdf.text.DocumentException;
 import com.itextpdf.text.pdf.BaseFont;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ConcurrentLruCache;
 
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
 
 @Component
 public class ArabicFontService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArabicFontService.class);
    
-    private BaseFont arabicBaseFont;
-    private boolean fontLoaded = false;
+    // Keys of the loaded Arabic font in the FontRegistry
+    public static final String ARABIC_FONT = "arabic";
+    // Same font without subsetting, for documents that get merged with PdfSmartCopy
+    public static final String ARABIC_FONT_FULL_EMBED = ARABIC_FONT + FontRegistry.FULL_EMBED_SUFFIX;
+
+    // Shaping options never change, and an ArabicShaping instance is immutable
+    private static final ArabicShaping SHAPER = new ArabicShaping(
+        ArabicShaping.LETTERS_SHAPE |
+        ArabicShaping.LENGTH_GROW_SHRINK
+    );
+
+    private final FontRegistry fontRegistry;
+
+    // Shaped and reordered output keyed by input text; names, titles and companies repeat a lot
+    private final ConcurrentLruCache<String, String> shapingCache;
+    private final LongAdder shapingLookups = new LongAdder();
+    private final LongAdder shapingMisses = new LongAdder();
+    private final LongAdder shapingNanos = new LongAdder();
    
     // Prioritize fonts that support Arabic letter connection
     private static final String[] FONT_PATHS = {
@@ -28,140 +54,141 @@ public class ArabicFontService {
         "fonts/Scheherazade-Regular.ttf"
     };
     
-    public ArabicFontService() {
-        loadArabicFont();
+    /**
+     * Starts loading the Arabic font in the background. Font lookups through this
+     * service or the {@link FontRegistry} wait until loading has finished.
+     */
+    @Autowired
+    public ArabicFontService(FontRegistry fontRegistry,
+                             @Value("${erp.arabic.shaping-cache-size:4096}") int shapingCacheSize) {
+        this.fontRegistry = fontRegistry;
+        this.shapingCache = new ConcurrentLruCache<>(shapingCacheSize, this::shapeAndReorder);
+        fontRegistry.expect(CompletableFuture.runAsync(this::loadArabicFont, FontRegistry.LOADER),
+                ARABIC_FONT, ARABIC_FONT_FULL_EMBED);
     }
    
     private void loadArabicFont() {
-        System.out.println("=== Loading Arabic Font with ICU4J Support ===");
-       
+        long started = System.nanoTime();
         for (String fontPath : FONT_PATHS) {
+            if (!new ClassPathResource(fontPath).exists()) {
+                logger.debug("Font not found: {}", fontPath);
+                continue;
+            }
             if (tryLoadFont(fontPath)) {
+                logger.info("Arabic font loaded from {} in {} ms", fontPath, (System.nanoTime() - started) / 1_000_000);
                 return;
             }
         }
        
-        System.err.println("❌ CRITICAL: No Arabic font could be loaded!");
-        System.err.println("❌ Please ensure you have at least one Arabic font in src/main/resources/fonts/");
-        System.err.println("❌ Recommended: Download Amiri-Regular.ttf from https://fonts.google.com/specimen/Amiri");
+        logger.error("CRITICAL: No Arabic font could be loaded! Please ensure you have at least one Arabic font "
+                + "in src/main/resources/fonts/ (recommended: Amiri-Regular.ttf from https://fonts.google.com/specimen/Amiri)");
     }
    
     private boolean tryLoadFont(String fontPath) {
         try {
-            ClassPathResource fontResource = new ClassPathResource(fontPath);
-           
-            if (!fontResource.exists()) {
-                System.out.println("❌ Font not found: " + fontPath);
-                return false;
-            }
-           
-            System.out.println("✅ Found font: " + fontPath);
-           
-            try (InputStream fontStream = fontResource.getInputStream()) {
-                byte[] fontData = fontStream.readAllBytes();
-               
-                // CRITICAL: Use IDENTITY_H for proper Unicode support
-                this.arabicBaseFont = BaseFont.createFont(
-                    fontPath,
-                    BaseFont.IDENTITY_H,
-                    BaseFont.EMBEDDED,
-                    true,
-                    fontData,
-                    null
-                );
-               
-                fontLoaded = true;
-                System.out.println("🎉 SUCCESS: Arabic font loaded!");
-                System.out.println("   Font: " + fontPath);
-                System.out.println("   Encoding: " + arabicBaseFont.getEncoding());
-                
-                // Test with actual Arabic text
-                testArabicRendering();
-                return true;
-            }
-           
-        } catch (Exception e) {
-            System.err.println("❌ Failed to load " + fontPath + ": " + e.getMessage());
-            e.printStackTrace();
+            // Both variants map the same file; build them side by side
+            CompletableFuture<BaseFont> fullEmbed = CompletableFuture.supplyAsync(
+                    () -> register(ARABIC_FONT_FULL_EMBED, fontPath, false), FontRegistry.LOADER);
+            // CRITICAL: The registry creates it with IDENTITY_H for proper Unicode support
+            BaseFont arabicBaseFont = register(ARABIC_FONT, fontPath, true);
+            fullEmbed.join();
+
+            testArabicRendering(arabicBaseFont);
+            return true;
+        } catch (CompletionException e) {
+            logger.error("Failed to load {}: {}", fontPath, e.getCause().getMessage(), e.getCause());
             return false;
         }
     }
-   
-    private void testArabicRendering() {
+
+    private BaseFont register(String key, String fontPath, boolean subset) {
         try {
-            String testText = "محمد";
-            System.out.println("\n🧪 Testing Arabic rendering:");
-            System.out.println("   Input text: " + testText);
-            System.out.println("   Input bytes: " + bytesToHex(testText.getBytes(StandardCharsets.UTF_8)));
-            
-            String shaped = shapeArabicText(testText);
-            System.out.println("   Shaped text length: " + shaped.length());
-            System.out.println("   Shaped bytes: " + bytesToHex(shaped.getBytes(StandardCharsets.UTF_8)));
-            
-            float width = arabicBaseFont.getWidthPoint(shaped, 12);
-            System.out.println("   Text width at 12pt: " + width);
-            System.out.println("✅ Arabic rendering test completed\n");
-           
-        } catch (Exception e) {
-            System.err.println("❌ Arabic rendering test failed: " + e.getMessage());
-            e.printStackTrace();
+            return fontRegistry.registerTrueType(key, fontPath, subset);
+        } catch (IOException | DocumentException e) {
+            throw new CompletionException(e);
         }
     }
-    
-    private String bytesToHex(byte[] bytes) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < Math.min(bytes.length, 20); i++) {
-            sb.append(String.format("%02X ", bytes[i]));
-        }
-        return sb.toString();
+   
+    private void testArabicRendering(BaseFont arabicBaseFont) {
+        String testText = "محمد";
+        String shaped = shapeArabicText(testText);
+        logger.debug("Arabic rendering check: '{}' shaped to {} chars, {} pt wide at 12 pt",
+                testText, shaped.length(), arabicBaseFont.getWidthPoint(shaped, 12));
     }
    
     /**
-     * CRITICAL: Shape Arabic text using ICU4J for proper letter connection
+     * CRITICAL: Shape Arabic text using ICU4J for proper letter connection.
+     * Results are memoized in a bounded LRU cache.
      */
     public String shapeArabicText(String arabicText) {
         if (arabicText == null || arabicText.isEmpty()) {
             return arabicText;
         }
         
-        // Check if text contains Arabic characters
+        // Text without Arabic characters passes through unchanged
         if (!containsArabic(arabicText)) {
-            System.out.println("⚠️ Text doesn't contain Arabic characters: " + arabicText);
             return arabicText;
         }
         
+        shapingLookups.increment();
+        return shapingCache.get(arabicText);
+    }
+
+    /**
+     * Join Arabic letters into their presentation forms but keep logical order, for
+     * layout code that does its own bidi reordering and line breaking (RTL table cells).
+     */
+    public String shapeLetters(String arabicText) {
+        if (arabicText == null || !containsArabic(arabicText)) {
+            return arabicText;
+        }
+        try {
+            return SHAPER.shape(arabicText);
+        } catch (ArabicShapingException e) {
+            logger.error("Arabic shaping error: {}", e.getMessage());
+            return arabicText;
+        }
+    }
+
+    private String shapeAndReorder(String arabicText) {
+        shapingMisses.increment();
+        long started = System.nanoTime();
         try {
-            System.out.println("🔄 Shaping Arabic text with ICU4J:");
-            System.out.println("   Input: '" + arabicText + "' (length: " + arabicText.length() + ")");
-            
             // Step 1: Shape Arabic letters (connect them properly)
-            ArabicShaping shaper = new ArabicShaping(
-                ArabicShaping.LETTERS_SHAPE | 
-                ArabicShaping.LENGTH_GROW_SHRINK
-            );
-            String shaped = shaper.shape(arabicText);
-            System.out.println("   After shaping: length = " + shaped.length());
+            String shaped = SHAPER.shape(arabicText);
             
             // Step 2: Apply bidirectional reordering (RTL)
             // Remove OUTPUT_REVERSE since the text is already in visual order
-            Bidi bidi = new Bidi(shaped, Bidi.DIRECTION_RIGHT_TO_LEFT);
-            String reordered = bidi.writeReordered(Bidi.DO_MIRRORING);
-            
-            System.out.println("   Final output: length = " + reordered.length());
-            System.out.println("✅ Arabic text shaped successfully");
-            
-            return reordered;
+            // ICU Bidi keeps per-paragraph state, so each call gets its own. Only cache
+            // misses get here, and renders on virtual threads would not reuse a per-thread one.
+            Bidi bidi = new Bidi();
+            bidi.setPara(shaped, (byte) Bidi.RTL, null);
+            return bidi.writeReordered(Bidi.DO_MIRRORING);
             
         } catch (ArabicShapingException e) {
-            System.err.println("❌ Arabic shaping error: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Arabic shaping error: {}", e.getMessage(), e);
             return arabicText;
         } catch (Exception e) {
-            System.err.println("❌ Error processing Arabic text: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error processing Arabic text: {}", e.getMessage(), e);
             return arabicText;
+        } finally {
+            shapingNanos.add(System.nanoTime() - started);
         }
     }
+
+    public ShapingStats getShapingStats() {
+        long lookups = shapingLookups.sum();
+        long misses = shapingMisses.sum();
+        double hitRatio = lookups == 0 ? 0.0 : (double) (lookups - misses) / lookups;
+        return new ShapingStats(shapingCache.size(), shapingCache.capacity(), lookups - misses, misses, hitRatio,
+                shapingNanos.sum());
+    }
+
+    /**
+     * @param shapingNanos time spent shaping and reordering on cache misses
+     */
+    public record ShapingStats(int size, int capacity, long hits, long misses, double hitRatio, long shapingNanos) {
+    }
     
     /**
      * Check if text contains Arabic characters
@@ -183,13 +210,26 @@ public class ArabicFontService {
     }
    
     public BaseFont getArabicBaseFont() {
-        if (!fontLoaded) {
-            System.err.println("⚠️ WARNING: Arabic font not loaded, text may not display correctly");
+        BaseFont font = fontRegistry.get(ARABIC_FONT);
+        if (font == null) {
+            logger.warn("Arabic font not loaded, text may not display correctly");
+        }
+        return font;
+    }
+
+    /**
+     * Arabic font that embeds the whole font file instead of a per-document subset.
+     * Identical font streams let PdfSmartCopy store the font once in merged output.
+     */
+    public BaseFont getArabicBaseFont(boolean fullEmbed) {
+        if (fullEmbed && fontRegistry.isRegistered(ARABIC_FONT_FULL_EMBED)) {
+            return fontRegistry.get(ARABIC_FONT_FULL_EMBED);
         }
-        return arabicBaseFont;
+        return getArabicBaseFont();
     }
    
+    /** Waits for background font loading to finish */
     public boolean isArabicFontLoaded() {
-        return fontLoaded && arabicBaseFont != null;
+        return fontRegistry.isRegistered(ARABIC_FONT);
     }
 }
\ No newline at end of file
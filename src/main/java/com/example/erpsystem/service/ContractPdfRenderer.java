@@ -0,0 +1,349 @@
+package com.example.erpsystem.service;
+
+import com.example.erpsystem.dto.EmployeeData;
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Chunk;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.SplitCharacter;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.ColumnText;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfChunk;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfPageEventHelper;
+import com.itextpdf.text.pdf.PdfWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Renders the employment contract as a PDF from the layout of contract-template.html.
+ * The page is compiled once at startup into a {@link ContractTemplate}; per-thread
+ * render contexts with ready-made fonts and chunks for the static text are kept in
+ * a small pool and reused, so a render only builds the tables and the employee values.
+ */
+@Service
+public class ContractPdfRenderer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContractPdfRenderer.class);
+
+    private static final String TEMPLATE_PATH = "templates/contract-template.html";
+
+    // Arial has both Latin and Arabic glyphs, so one family serves both columns
+    public static final String CONTRACT_FONT = "contract";
+    public static final String CONTRACT_FONT_BOLD = "contract-bold";
+    private static final String REGULAR_FONT_PATH = "fonts/arial.TTF";
+    private static final String BOLD_FONT_PATH = "fonts/arialbd.ttf";
+
+    // CSS sizes of contract-template.css converted from px to pt
+    private static final float MARGIN = 56.7f;          // 2cm page padding
+    private static final float BODY_SIZE = 9f;          // 12px
+    private static final float TITLE_SIZE = 12f;        // 16px
+    private static final float SECTION_TITLE_SIZE = 9.75f; // 13px
+    private static final float FOOTER_SIZE = 7.5f;      // 10px
+    private static final float LINE_HEIGHT = 1.4f;
+    // 48% column, 4% padding, 48% column
+    private static final float[] COLUMN_WIDTHS = {48f, 4f, 48f};
+
+    private final ArabicFontService arabicFontService;
+    private final FontRegistry fontRegistry;
+    private final ContractTemplate template;
+    private final BlockingQueue<RenderContext> pool;
+
+    @Autowired
+    public ContractPdfRenderer(ArabicFontService arabicFontService, FontRegistry fontRegistry,
+                               @Value("${erp.contract.pool-size:0}") int poolSize) throws IOException {
+        this.arabicFontService = arabicFontService;
+        this.fontRegistry = fontRegistry;
+
+        // Both fonts load in the background; the first render context waits for them
+        fontRegistry.expect(CompletableFuture.allOf(
+                        CompletableFuture.runAsync(() -> registerFont(CONTRACT_FONT, REGULAR_FONT_PATH), FontRegistry.LOADER),
+                        CompletableFuture.runAsync(() -> registerFont(CONTRACT_FONT_BOLD, BOLD_FONT_PATH), FontRegistry.LOADER)),
+                CONTRACT_FONT, CONTRACT_FONT_BOLD);
+
+        try (Reader html = new InputStreamReader(new ClassPathResource(TEMPLATE_PATH).getInputStream(), StandardCharsets.UTF_8)) {
+            this.template = ContractTemplate.compile(html, arabicFontService::shapeLetters);
+        }
+
+        int size = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.pool = new ArrayBlockingQueue<>(size);
+        logger.info("Compiled contract template: {} blocks, {} static runs, context pool of {}",
+                template.getBlocks().size(), template.getStaticRunCount(), size);
+    }
+
+    public byte[] renderContract(EmployeeData employeeData) throws IOException, DocumentException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        writeContract(employeeData, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Render the contract straight into the stream. The stream is flushed but left open.
+     */
+    public void writeContract(EmployeeData employeeData, OutputStream out) throws IOException, DocumentException {
+        RenderContext context = borrow();
+        try {
+            Document document = new Document(PageSize.A4, MARGIN, MARGIN, MARGIN, MARGIN);
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
+            writer.setPageEvent(context.footer);
+            document.addTitle("Employment Contract");
+            document.open();
+
+            for (ContractTemplate.Block block : template.getBlocks()) {
+                if (block.pageBreakBefore()) {
+                    document.newPage();
+                }
+                document.add(context.table(block, employeeData));
+            }
+
+            document.close();
+        } finally {
+            pool.offer(context);
+        }
+    }
+
+    private RenderContext borrow() {
+        RenderContext context = pool.poll();
+        return context != null ? context : new RenderContext();
+    }
+
+    private void registerFont(String key, String path) {
+        try {
+            fontRegistry.registerTrueType(key, path, true);
+        } catch (IOException | DocumentException e) {
+            logger.error("Could not load contract font {}: {}", path, e.getMessage(), e);
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Fonts and chunks for the static text of the template. Used by one render at a
+     * time; the pool hands it to the next render afterwards.
+     */
+    private final class RenderContext {
+
+        private final BaseFont regularFont = requireFont(CONTRACT_FONT);
+        private final BaseFont boldFont = requireFont(CONTRACT_FONT_BOLD);
+        private final Font body = new Font(regularFont, BODY_SIZE);
+        private final Font bodyBold = new Font(boldFont, BODY_SIZE);
+        private final Font title = new Font(boldFont, TITLE_SIZE);
+        private final Font sectionTitle = new Font(boldFont, SECTION_TITLE_SIZE, Font.UNDERLINE);
+        private final Map<ContractTemplate.Run, Chunk> staticChunks = new IdentityHashMap<>();
+        private final PageNumberFooter footer = new PageNumberFooter(new Font(regularFont, FOOTER_SIZE));
+
+        private RenderContext() {
+            for (ContractTemplate.Block block : template.getBlocks()) {
+                for (ContractTemplate.Column column : block.columns()) {
+                    for (ContractTemplate.Paragraph paragraph : column.paragraphs()) {
+                        Font font = font(block, paragraph, false);
+                        Font bold = font(block, paragraph, true);
+                        for (ContractTemplate.Run run : paragraph.runs()) {
+                            if (run.field() == null) {
+                                staticChunks.put(run, chunk(run.text(), run.bold() ? bold : font));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        private PdfPTable table(ContractTemplate.Block block, EmployeeData data) throws DocumentException {
+            PdfPTable table;
+            switch (block.type()) {
+                case TITLE -> {
+                    table = new PdfPTable(1);
+                    table.addCell(cell(block, block.columns().get(0), data, Element.ALIGN_CENTER));
+                    table.setSpacingAfter(4f);
+                }
+                case SECTION_PAIR -> {
+                    table = new PdfPTable(COLUMN_WIDTHS);
+                    table.addCell(cell(block, block.columns().get(0), data, Element.ALIGN_JUSTIFIED));
+                    table.addCell(emptyCell());
+                    table.addCell(cell(block, block.columns().get(1), data, Element.ALIGN_JUSTIFIED));
+                    table.setSpacingAfter(2f);
+                }
+                default -> {
+                    table = new PdfPTable(COLUMN_WIDTHS);
+                    int index = 0;
+                    for (ContractTemplate.Column column : block.columns()) {
+                        if (index % 2 == 1) {
+                            table.addCell(emptyCell());
+                        }
+                        table.addCell(cell(block, column, data, column.rtl() ? Element.ALIGN_RIGHT : Element.ALIGN_LEFT));
+                        index++;
+                    }
+                    table.completeRow();
+                    table.setSpacingBefore(18f);
+                }
+            }
+            table.setWidthPercentage(100f);
+            table.setSplitLate(false);
+            return table;
+        }
+
+        private PdfPCell cell(ContractTemplate.Block block, ContractTemplate.Column column, EmployeeData data,
+                              int alignment) {
+            PdfPCell cell = new PdfPCell();
+            cell.setBorder(Rectangle.NO_BORDER);
+            cell.setPadding(0f);
+            cell.setPaddingBottom(2f);
+            cell.setUseAscender(true);
+            if (column.rtl()) {
+                cell.setRunDirection(PdfWriter.RUN_DIRECTION_RTL);
+            }
+
+            for (ContractTemplate.Paragraph paragraph : column.paragraphs()) {
+                if (paragraph.type() == ContractTemplate.ParagraphType.SIGNATURE_LINE) {
+                    cell.addElement(signatureLine());
+                    continue;
+                }
+
+                Font font = font(block, paragraph, false);
+                Paragraph element = new Paragraph(font.getSize() * LINE_HEIGHT);
+                element.setAlignment(paragraph.type() == ContractTemplate.ParagraphType.SECTION_TITLE
+                        ? (column.rtl() ? Element.ALIGN_RIGHT : Element.ALIGN_LEFT)
+                        : alignment);
+                if (paragraph.type() == ContractTemplate.ParagraphType.SECTION_TITLE) {
+                    element.setSpacingBefore(6f);
+                    element.setSpacingAfter(2f);
+                } else {
+                    element.setSpacingAfter(1.5f);
+                }
+
+                for (ContractTemplate.Run run : paragraph.runs()) {
+                    if (run.field() == null) {
+                        element.add(staticChunks.get(run));
+                    } else {
+                        String value = read(run, data);
+                        if (value != null && !value.isEmpty()) {
+                            element.add(chunk(column.rtl() ? arabicFontService.shapeLetters(value) : value,
+                                font(block, paragraph, true)));
+                        }
+                    }
+                }
+                cell.addElement(element);
+            }
+            return cell;
+        }
+
+        private Font font(ContractTemplate.Block block, ContractTemplate.Paragraph paragraph, boolean bold) {
+            if (block.type() == ContractTemplate.BlockType.TITLE) {
+                return title;
+            }
+            if (paragraph.type() == ContractTemplate.ParagraphType.SECTION_TITLE) {
+                return sectionTitle;
+            }
+            return bold ? bodyBold : body;
+        }
+
+        private PdfPTable signatureLine() {
+            PdfPTable line = new PdfPTable(1);
+            line.setWidthPercentage(100f);
+            line.setSpacingBefore(18f);
+            line.setSpacingAfter(4f);
+            PdfPCell cell = new PdfPCell();
+            cell.setBorder(Rectangle.TOP);
+            cell.setBorderWidthTop(0.75f);
+            cell.setBorderColorTop(BaseColor.BLACK);
+            cell.setFixedHeight(1f);
+            line.addCell(cell);
+            return line;
+        }
+
+        private PdfPCell emptyCell() {
+            PdfPCell cell = new PdfPCell();
+            cell.setBorder(Rectangle.NO_BORDER);
+            return cell;
+        }
+    }
+
+    private static Chunk chunk(String text, Font font) {
+        Chunk chunk = new Chunk(text, font);
+        chunk.setSplitCharacter(LINE_BREAKS);
+        return chunk;
+    }
+
+    /**
+     * Break after whitespace and after hyphens that are not inside a number such as a
+     * date. iText's default rule finds dates with a regex for every candidate break,
+     * which was most of the render time of this text-heavy document.
+     */
+    private static final SplitCharacter LINE_BREAKS = new SplitCharacter() {
+        @Override
+        public boolean isSplitCharacter(int start, int current, int end, char[] cc, PdfChunk[] ck) {
+            char c = charAt(current, cc, ck);
+            if (c <= ' ' || c == '\u2010' || (c >= '\u2002' && c <= '\u200b')) {
+                return true;
+            }
+            return c == '-' && !(current > start && current + 1 < end
+                    && Character.isDigit(charAt(current - 1, cc, ck))
+                    && Character.isDigit(charAt(current + 1, cc, ck)));
+        }
+
+        private char charAt(int index, char[] cc, PdfChunk[] ck) {
+            return ck == null ? cc[index] : (char) ck[Math.min(index, ck.length - 1)].getUnicodeEquivalent(cc[index]);
+        }
+    };
+
+    private BaseFont requireFont(String key) {
+        BaseFont font = fontRegistry.get(key);
+        if (font == null) {
+            throw new IllegalStateException("Contract font '" + key + "' is not available");
+        }
+        return font;
+    }
+
+    private static String read(ContractTemplate.Run run, EmployeeData data) {
+        try {
+            Object value = run.field().invoke(data);
+            return value != null ? value.toString() : null;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not read " + run.field().getName(), e);
+        }
+    }
+
+    /**
+     * Centered page number at the bottom of every page, like .page-footer.
+     */
+    private static final class PageNumberFooter extends PdfPageEventHelper {
+
+        private final Font font;
+
+        private PageNumberFooter(Font font) {
+            this.font = font;
+        }
+
+        @Override
+        public void onEndPage(PdfWriter writer, Document document) {
+            Rectangle page = document.getPageSize();
+            ColumnText.showTextAligned(writer.getDirectContent(), Element.ALIGN_CENTER,
+                    new Phrase(String.valueOf(writer.getPageNumber()), font),
+                    (page.getLeft() + page.getRight()) / 2, page.getBottom() + 20f, 0);
+        }
+    }
+}
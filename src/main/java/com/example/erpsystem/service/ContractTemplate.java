@@ -0,0 +1,252 @@
+package com.example.erpsystem.service;
+
+import com.example.erpsystem.dto.EmployeeData;
+import org.attoparser.ParseException;
+import org.attoparser.config.ParseConfiguration;
+import org.attoparser.dom.DOMMarkupParser;
+import org.attoparser.dom.Document;
+import org.attoparser.dom.Element;
+import org.attoparser.dom.INode;
+import org.attoparser.dom.Text;
+import org.springframework.beans.BeanUtils;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * The contract-template.html page compiled into a flat list of blocks. Each block
+ * holds paragraphs of text runs, and a run is either static text or an EmployeeData
+ * property. Static Arabic text is shaped once at compile time, so rendering only
+ * has to look up and shape the employee values.
+ */
+public final class ContractTemplate {
+
+    private static final Pattern FIELD_EXPRESSION = Pattern.compile("\\$\\{employeeData\\.(\\w+)}");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public enum BlockType {
+        /** Centered heading line */
+        TITLE,
+        /** English and Arabic columns side by side */
+        SECTION_PAIR,
+        /** Signature blocks, two per row */
+        SIGNATURES
+    }
+
+    public enum ParagraphType { TEXT, SECTION_TITLE, INSTRUCTION, LIST_ITEM, SIGNATURE_LINE }
+
+    /** Static text, or the value of an EmployeeData getter when field is set */
+    public record Run(String text, Method field, boolean bold) {
+    }
+
+    public record Paragraph(ParagraphType type, List<Run> runs) {
+    }
+
+    /** A column of paragraphs; rtl columns hold Arabic */
+    public record Column(boolean rtl, List<Paragraph> paragraphs) {
+    }
+
+    /**
+     * @param columns TITLE: one column; SECTION_PAIR: English then Arabic;
+     *                SIGNATURES: left to right, row by row
+     */
+    public record Block(BlockType type, boolean pageBreakBefore, List<Column> columns) {
+    }
+
+    private final List<Block> blocks;
+    private final int staticRuns;
+
+    private ContractTemplate(List<Block> blocks) {
+        this.blocks = List.copyOf(blocks);
+        this.staticRuns = (int) runs().filter(run -> run.field() == null).count();
+    }
+
+    public List<Block> getBlocks() { return blocks; }
+
+    public int getStaticRunCount() { return staticRuns; }
+
+    private Stream<Run> runs() {
+        return blocks.stream()
+                .flatMap(block -> block.columns().stream())
+                .flatMap(column -> column.paragraphs().stream())
+                .flatMap(paragraph -> paragraph.runs().stream());
+    }
+
+    /**
+     * Parse the Thymeleaf contract page. Only the structure the page actually uses is
+     * understood: header titles, section pairs, ordered lists, instruction items and
+     * the signature area. Unknown employeeData properties fail the compilation.
+     *
+     * @param shaper applied to static text of right-to-left columns
+     */
+    public static ContractTemplate compile(Reader html, UnaryOperator<String> shaper) throws IOException {
+        Document document;
+        try {
+            document = new DOMMarkupParser(ParseConfiguration.htmlConfiguration()).parse(html);
+        } catch (ParseException e) {
+            throw new IOException("Could not parse contract template", e);
+        }
+
+        Element page = findByClass(document.getChildrenOfType(Element.class), "page");
+        if (page == null) {
+            throw new IllegalStateException("Contract template has no .page element");
+        }
+
+        Compiler compiler = new Compiler(shaper);
+        for (Element element : page.getChildrenOfType(Element.class)) {
+            compiler.block(element);
+        }
+        return new ContractTemplate(compiler.blocks);
+    }
+
+    private static final class Compiler {
+
+        private final UnaryOperator<String> shaper;
+        private final List<Block> blocks = new ArrayList<>();
+
+        private Compiler(UnaryOperator<String> shaper) {
+            this.shaper = shaper;
+        }
+
+        private void block(Element element) {
+            if (hasClass(element, "contract-header")) {
+                for (Element title : element.getChildrenOfType(Element.class)) {
+                    boolean rtl = isRtl(title);
+                    blocks.add(new Block(BlockType.TITLE, false, List.of(
+                            new Column(rtl, List.of(new Paragraph(ParagraphType.TEXT, inline(title, rtl, true)))))));
+                }
+            } else if (hasClass(element, "section-pair")) {
+                Element english = childByClass(element, "english-content");
+                Element arabic = childByClass(element, "arabic-content");
+                blocks.add(new Block(BlockType.SECTION_PAIR, hasClass(element, "force-page-break-before"),
+                        List.of(column(english, false), column(arabic, true))));
+            } else if (hasClass(element, "signature-area")) {
+                List<Column> columns = new ArrayList<>();
+                for (Element signature : element.getChildrenOfType(Element.class)) {
+                    if (hasClass(signature, "signature-column")) {
+                        columns.add(column(signature, hasClass(signature, "signature-arabic")));
+                    }
+                }
+                blocks.add(new Block(BlockType.SIGNATURES, false, columns));
+            }
+            // page-footer is drawn as a page number on every page
+        }
+
+        private Column column(Element container, boolean rtl) {
+            List<Paragraph> paragraphs = new ArrayList<>();
+            if (container == null) {
+                return new Column(rtl, paragraphs);
+            }
+            for (Element child : container.getChildrenOfType(Element.class)) {
+                String name = child.getElementName();
+                if (name.equals("p")) {
+                    paragraphs.add(new Paragraph(ParagraphType.TEXT, inline(child, rtl, false)));
+                } else if (name.equals("ol")) {
+                    int number = 1;
+                    for (Element item : child.getChildrenOfType(Element.class)) {
+                        List<Run> runs = new ArrayList<>();
+                        runs.add(new Run(number++ + ". ", null, false));
+                        runs.addAll(inline(item, rtl, false));
+                        paragraphs.add(new Paragraph(ParagraphType.LIST_ITEM, runs));
+                    }
+                } else if (hasClass(child, "section-title")) {
+                    paragraphs.add(new Paragraph(ParagraphType.SECTION_TITLE, inline(child, rtl, true)));
+                } else if (hasClass(child, "instruction-item")) {
+                    paragraphs.add(new Paragraph(ParagraphType.INSTRUCTION, inline(child, rtl, false)));
+                } else if (hasClass(child, "signature-line")) {
+                    paragraphs.add(new Paragraph(ParagraphType.SIGNATURE_LINE, List.of()));
+                }
+            }
+            return new Column(rtl, paragraphs);
+        }
+
+        private List<Run> inline(Element element, boolean rtl, boolean bold) {
+            List<Run> runs = new ArrayList<>();
+            collect(element, rtl, bold, runs);
+
+            // Trim like a browser would at the edges of the block
+            if (!runs.isEmpty() && runs.get(0).field() == null) {
+                runs.set(0, withText(runs.get(0), runs.get(0).text().stripLeading()));
+            }
+            int last = runs.size() - 1;
+            if (last >= 0 && runs.get(last).field() == null) {
+                runs.set(last, withText(runs.get(last), runs.get(last).text().stripTrailing()));
+            }
+            runs.removeIf(run -> run.field() == null && run.text().isEmpty());
+            return runs;
+        }
+
+        private void collect(Element element, boolean rtl, boolean bold, List<Run> runs) {
+            for (INode node : element.getChildren()) {
+                if (node instanceof Text text) {
+                    String content = WHITESPACE.matcher(text.getContent()).replaceAll(" ");
+                    runs.add(new Run(rtl ? shaper.apply(content) : content, null, bold));
+                } else if (node instanceof Element child) {
+                    String expression = child.getAttributeValue("th:text");
+                    if (expression != null) {
+                        runs.add(new Run(null, getter(expression), true));
+                    } else {
+                        collect(child, rtl, bold || child.getElementName().equals("strong"), runs);
+                    }
+                }
+            }
+        }
+
+        private static Run withText(Run run, String text) {
+            return new Run(text, run.field(), run.bold());
+        }
+    }
+
+    private static Method getter(String expression) {
+        Matcher matcher = FIELD_EXPRESSION.matcher(expression);
+        if (!matcher.matches()) {
+            throw new IllegalStateException("Unsupported expression in contract template: " + expression);
+        }
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(EmployeeData.class, matcher.group(1));
+        if (descriptor == null || descriptor.getReadMethod() == null) {
+            throw new IllegalStateException("Contract template refers to unknown property: " + matcher.group(1));
+        }
+        return descriptor.getReadMethod();
+    }
+
+    private static boolean isRtl(Element element) {
+        String style = element.getAttributeValue("style");
+        return style != null && style.replace(" ", "").contains("direction:rtl");
+    }
+
+    private static boolean hasClass(Element element, String cssClass) {
+        String classes = element.getAttributeValue("class");
+        return classes != null && Arrays.asList(WHITESPACE.split(classes.trim())).contains(cssClass);
+    }
+
+    private static Element childByClass(Element parent, String cssClass) {
+        for (Element child : parent.getChildrenOfType(Element.class)) {
+            if (hasClass(child, cssClass)) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    private static Element findByClass(List<Element> elements, String cssClass) {
+        for (Element element : elements) {
+            if (hasClass(element, cssClass)) {
+                return element;
+            }
+            Element found = findByClass(element.getChildrenOfType(Element.class), cssClass);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+}
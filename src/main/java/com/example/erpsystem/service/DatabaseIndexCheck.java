@@ -0,0 +1,82 @@
+package com.example.erpsystem.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks at startup that the indexes the frequent queries rely on exist and are usable.
+ * They come from the migrations in db/migration, but an index dropped by hand or left
+ * invalid by a failed rebuild would only show up as slow pages. The application still
+ * starts, since every query gives the same answer with a scan; each missing index is
+ * logged as a warning and listed by {@link #getStats}.
+ */
+@Component
+public class DatabaseIndexCheck {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseIndexCheck.class);
+
+    // Index name to the queries that need it
+    private static final Map<String, String> REQUIRED_INDEXES = new LinkedHashMap<>();
+
+    static {
+        REQUIRED_INDEXES.put("employee_search_text_trgm", "employee search");
+        REQUIRED_INDEXES.put("employee_national_id_idx", "lookups by national ID");
+        REQUIRED_INDEXES.put("employee_insurance_number_idx", "lookups by insurance number");
+        REQUIRED_INDEXES.put("employee_company_name_idx", "employees of a company");
+        REQUIRED_INDEXES.put("employee_end_date_idx", "active employee counts");
+        REQUIRED_INDEXES.put("salary_employee_date_idx", "salaries of an employee, by date or month");
+        REQUIRED_INDEXES.put("salary_date_idx", "salaries of a period");
+        REQUIRED_INDEXES.put("salary_employee_month_key", "one salary per employee and month");
+    }
+
+    // Invalid indexes (failed concurrent builds) are kept up to date but never used
+    private static final String VALID_INDEXES_SQL = "SELECT c.relname FROM pg_index i"
+            + " JOIN pg_class c ON c.oid = i.indexrelid"
+            + " WHERE c.relnamespace = current_schema()::regnamespace AND i.indisvalid AND i.indisready";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public DatabaseIndexCheck(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        Stats stats = getStats();
+        stats.missing().forEach((index, usedBy) ->
+                logger.warn("Index {} is missing or invalid; {} will scan the table", index, usedBy));
+        if (stats.missing().isEmpty()) {
+            logger.info("All {} required database indexes are present", stats.present().size());
+        }
+    }
+
+    /**
+     * Current state, read from the catalog on each call.
+     */
+    public Stats getStats() {
+        Set<String> valid = new HashSet<>(jdbcTemplate.queryForList(VALID_INDEXES_SQL, String.class));
+        List<String> present = new ArrayList<>();
+        Map<String, String> missing = new LinkedHashMap<>();
+        REQUIRED_INDEXES.forEach((index, usedBy) -> {
+            if (valid.contains(index)) {
+                present.add(index);
+            } else {
+                missing.put(index, usedBy);
+            }
+        });
+        return new Stats(present, missing);
+    }
+
+    /**
+     * @param missing index name to the queries that go without it
+     */
+    public record Stats(List<String> present, Map<String, String> missing) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.erpsystem.service;
+
+import java.time.Duration;
+
+/**
+ * A document render was turned away because the {@link DocumentMemoryBudget} is used
+ * up. Callers should answer with 503 and ask the client to come back later.
+ */
+public class DocumentBudgetExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public DocumentBudgetExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
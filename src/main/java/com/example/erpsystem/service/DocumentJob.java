@@ -0,0 +1,90 @@
+package com.example.erpsystem.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A queued document generation request and, once it has run, where its result is.
+ * Status fields are written by the worker and read by pollers, hence volatile.
+ */
+public final class DocumentJob {
+
+    public enum Type { INSURANCE, INSURANCE_ZIP, INSURANCE_MERGED, CONTRACT }
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    private final String id;
+    private final Type type;
+    private final String fileName;
+    private final String contentType;
+    private final Instant createdAt = Instant.now();
+    private final CompletableFuture<DocumentJob> completion = new CompletableFuture<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile long resultSize;
+    private volatile String error;
+    private volatile Path result;
+
+    DocumentJob(String id, Type type, String fileName, String contentType) {
+        this.id = id;
+        this.type = type;
+        this.fileName = fileName;
+        this.contentType = contentType;
+    }
+
+    void markRunning() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void markDone(Path result, long size) {
+        this.result = result;
+        this.resultSize = size;
+        finishedAt = Instant.now();
+        status = Status.DONE;
+        completion.complete(this);
+    }
+
+    void markFailed(String error) {
+        this.error = error;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+        completion.complete(this);
+    }
+
+    public String getId() { return id; }
+
+    public Type getType() { return type; }
+
+    public String getFileName() { return fileName; }
+
+    public String getContentType() { return contentType; }
+
+    public Status getStatus() { return status; }
+
+    public Instant getCreatedAt() { return createdAt; }
+
+    public Instant getStartedAt() { return startedAt; }
+
+    public Instant getFinishedAt() { return finishedAt; }
+
+    public long getResultSize() { return resultSize; }
+
+    public String getError() { return error; }
+
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+
+    /** Completes with this job once it is done or has failed */
+    @JsonIgnore
+    public CompletableFuture<DocumentJob> getCompletion() { return completion; }
+
+    @JsonIgnore
+    public Path getResult() { return result; }
+}
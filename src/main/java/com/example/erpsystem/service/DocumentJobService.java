@@ -0,0 +1,147 @@
+package com.example.erpsystem.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs document generation off the request threads. Every job gets a virtual
+ * thread, at most erp.jobs.max-concurrency of them generate at the same time and
+ * the rest wait in line. Results are written to files under erp.jobs.dir and
+ * removed again after erp.jobs.retention, checked every erp.jobs.purge-interval.
+ */
+@Service
+public class DocumentJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentJobService.class);
+
+    private static final String RESULT_SUFFIX = ".result";
+
+    /**
+     * Writes the document of a job. Must not close the stream.
+     */
+    @FunctionalInterface
+    public interface JobTask {
+        void write(OutputStream out) throws Exception;
+    }
+
+    private final Path directory;
+    private final Duration retention;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, DocumentJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DocumentJobService(@Value("${erp.jobs.dir:cache/jobs}") String directory,
+                              @Value("${erp.jobs.max-concurrency:4}") int maxConcurrency,
+                              @Value("${erp.jobs.retention:1h}") Duration retention) throws IOException {
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.retention = retention;
+        this.permits = new Semaphore(maxConcurrency, true);
+
+        // Jobs live in memory, so results of a previous run can't be reached any more
+        Files.createDirectories(this.directory);
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(this.directory, "*" + RESULT_SUFFIX)) {
+            leftovers.forEach(DocumentJobService::deleteQuietly);
+        }
+        logger.info("Document jobs in {} (max concurrency {}, retention {})", this.directory, maxConcurrency, retention);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue a job and return it right away in QUEUED state.
+     */
+    public DocumentJob submit(DocumentJob.Type type, String fileName, String contentType, JobTask task) {
+        DocumentJob job = new DocumentJob(UUID.randomUUID().toString(), type, fileName, contentType);
+        jobs.put(job.getId(), job);
+        executor.execute(() -> run(job, task));
+        logger.info("Queued {} job {} ({})", type, job.getId(), fileName);
+        return job;
+    }
+
+    public Optional<DocumentJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void run(DocumentJob job, JobTask task) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.markFailed("Cancelled before it started");
+            return;
+        }
+
+        Path result = directory.resolve(job.getId() + RESULT_SUFFIX);
+        try {
+            job.markRunning();
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(result))) {
+                task.write(out);
+            }
+            job.markDone(result, Files.size(result));
+            logger.info("{} job {} finished: {} bytes in {} ms", job.getType(), job.getId(), job.getResultSize(),
+                    Duration.between(job.getStartedAt(), job.getFinishedAt()).toMillis());
+        } catch (Exception e) {
+            logger.error("{} job {} failed: {}", job.getType(), job.getId(), e.getMessage(), e);
+            deleteQuietly(result);
+            job.markFailed(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Forget the jobs finished longer than the retention ago and delete their results.
+     */
+    @Scheduled(fixedDelayString = "${erp.jobs.purge-interval:PT5M}", initialDelayString = "${erp.jobs.purge-interval:PT5M}")
+    public void purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        int before = jobs.size();
+        jobs.values().removeIf(job -> {
+            if (!job.isFinished() || job.getFinishedAt().isAfter(cutoff)) {
+                return false;
+            }
+            if (job.getResult() != null) {
+                deleteQuietly(job.getResult());
+            }
+            return true;
+        });
+        int purged = before - jobs.size();
+        if (purged > 0) {
+            logger.debug("Purged {} expired document jobs", purged);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete job result {}: {}", file, e.getMessage());
+        }
+    }
+}
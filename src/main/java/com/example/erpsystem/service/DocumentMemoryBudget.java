@@ -0,0 +1,179 @@
+package com.example.erpsystem.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Heap budget shared by all document renders. A render reserves its estimated
+ * footprint before it starts and gives it back when it is done; when the budget is
+ * used up, renders wait in line for a while and are then turned away with a
+ * {@link DocumentBudgetExceededException}, so a download spike slows down instead of
+ * running the JVM out of memory.
+ * <p>
+ * Budget is counted in KiB so that a budget of several GB still fits a Semaphore.
+ * The semaphore is fair and every acquire honours it, the immediate one included: a
+ * waiting large reservation is not overtaken by small ones.
+ */
+@Component
+public class DocumentMemoryBudget {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentMemoryBudget.class);
+
+    private static final int UNIT = 1024;
+
+    private final Semaphore budget;
+    private final int capacityUnits;
+    private final Duration queueTimeout;
+    private final int maxQueued;
+    private final Duration retryAfter;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder admittedAfterWait = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public DocumentMemoryBudget(@Value("${erp.pdf-budget.heap-fraction:0.25}") double heapFraction,
+                                @Value("${erp.pdf-budget.queue-timeout:10s}") Duration queueTimeout,
+                                @Value("${erp.pdf-budget.max-queued:64}") int maxQueued,
+                                @Value("${erp.pdf-budget.retry-after:5s}") Duration retryAfter,
+                                MeterRegistry registry) {
+        this((long) (Runtime.getRuntime().maxMemory() * heapFraction), queueTimeout, maxQueued, retryAfter);
+        registerMeters(registry);
+    }
+
+    public DocumentMemoryBudget(long maxBytes, Duration queueTimeout, int maxQueued, Duration retryAfter) {
+        this.capacityUnits = (int) Math.min(Integer.MAX_VALUE, Math.max(1, maxBytes / UNIT));
+        this.budget = new Semaphore(capacityUnits, true);
+        this.queueTimeout = queueTimeout;
+        this.maxQueued = maxQueued;
+        this.retryAfter = retryAfter;
+        logger.info("Document memory budget {} MB (queue timeout {}, max queued {})",
+                (long) capacityUnits * UNIT / (1024 * 1024), queueTimeout, maxQueued);
+    }
+
+    /**
+     * Reserve memory for one render, waiting up to the queue timeout when the budget
+     * is in use. A reservation larger than the whole budget is capped to it, so it
+     * runs alone rather than never.
+     *
+     * @throws DocumentBudgetExceededException when the queue is full or the wait timed out
+     */
+    public Reservation reserve(long bytes) {
+        int units = (int) Math.min(capacityUnits, Math.max(1, (bytes + UNIT - 1) / UNIT));
+        // The timed form goes behind the renders already waiting; the untimed one would barge ahead of them
+        if (tryAcquire(units, Duration.ZERO)) {
+            admitted.increment();
+            return new Reservation(units);
+        }
+
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            throw reject("queue is full");
+        }
+        try {
+            if (!tryAcquire(units, queueTimeout)) {
+                throw reject("timed out after " + queueTimeout.toMillis() + " ms");
+            }
+        } finally {
+            queued.decrementAndGet();
+        }
+        admitted.increment();
+        admittedAfterWait.increment();
+        return new Reservation(units);
+    }
+
+    private boolean tryAcquire(int units, Duration timeout) {
+        try {
+            return budget.tryAcquire(units, timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject("interrupted while waiting");
+        }
+    }
+
+    private DocumentBudgetExceededException reject(String reason) {
+        rejected.increment();
+        logger.warn("Document render rejected, memory budget exhausted: {}", reason);
+        return new DocumentBudgetExceededException(
+                "Document generation is at its memory limit (" + reason + ")", retryAfter);
+    }
+
+    private long inUseBytes() {
+        return (long) (capacityUnits - budget.availablePermits()) * UNIT;
+    }
+
+    public Stats getStats() {
+        return new Stats((long) capacityUnits * UNIT, inUseBytes(), queued.get(),
+                admitted.sum(), admittedAfterWait.sum(), rejected.sum());
+    }
+
+    /**
+     * @param queued            renders waiting for budget right now
+     * @param admitted          renders that got their reservation, with or without waiting
+     * @param admittedAfterWait admitted renders that had to wait first
+     * @param rejected          renders turned away
+     */
+    public record Stats(long budgetBytes, long inUseBytes, int queued,
+                        long admitted, long admittedAfterWait, long rejected) {
+    }
+
+    private void registerMeters(MeterRegistry registry) {
+        Gauge.builder("erp.pdf.budget.used", this, DocumentMemoryBudget::inUseBytes)
+                .description("Heap reserved by document renders in progress")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("erp.pdf.budget.limit", this, budget -> (double) budget.capacityUnits * UNIT)
+                .description("Heap budget for document renders")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("erp.pdf.budget.queued", queued, AtomicInteger::get)
+                .description("Document renders waiting for memory budget")
+                .register(registry);
+        FunctionCounter.builder("erp.pdf.budget.requests", admitted, LongAdder::sum)
+                .description("Document renders by admission outcome")
+                .tag("outcome", "admitted")
+                .register(registry);
+        FunctionCounter.builder("erp.pdf.budget.requests", admittedAfterWait, LongAdder::sum)
+                .description("Document renders by admission outcome")
+                .tag("outcome", "queued")
+                .register(registry);
+        FunctionCounter.builder("erp.pdf.budget.requests", rejected, LongAdder::sum)
+                .description("Document renders by admission outcome")
+                .tag("outcome", "rejected")
+                .register(registry);
+    }
+
+    /**
+     * Memory held by one render. Closing it more than once releases it only once.
+     */
+    public final class Reservation implements AutoCloseable {
+
+        private final int units;
+        private boolean released;
+
+        private Reservation(int units) {
+            this.units = units;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                budget.release(units);
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.erpsystem.service;
+
+import com.example.erpsystem.dto.EmployeeSuggestion;
+import com.example.erpsystem.model.Employee;
+import com.example.erpsystem.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory type-ahead over employee names and national IDs; suggestions never
+ * touch the database.
+ * <p>
+ * Terms live in a sorted map, so all terms starting with a prefix form one
+ * contiguous range, the same lookup a trie gives, and a lookup reads only as many
+ * entries as it returns. Every word of a name starts a term that runs to the end of
+ * the name, which lets "moh" and "mohamed 1" both find "Ahmed Mohamed 1". Terms are
+ * folded with {@link EmployeeSearchService#normalize}, like the database search.
+ * <p>
+ * Suggestions come in term order, so a whole-word match comes before longer words
+ * that start with it. Lookups are lock-free; writes are serialized.
+ */
+@Component
+public class EmployeeAutocompleteIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeAutocompleteIndex.class);
+
+    // Separates a term from the employee id in a key, and sorts before any character
+    private static final char SEPARATOR = '\u0000';
+
+    private final NavigableMap<String, EmployeeSuggestion> terms;
+    private final Map<Long, EmployeeSuggestion> byId = new ConcurrentHashMap<>();
+
+    /**
+     * Loads every employee before the web server takes requests, so no update can
+     * race the initial build. The terms are sorted first; a skip list built from a
+     * sorted map is linked in one pass instead of searched per insert.
+     */
+    @Autowired
+    public EmployeeAutocompleteIndex(EmployeeRepository employeeRepository) {
+        long started = System.nanoTime();
+        TreeMap<String, EmployeeSuggestion> sorted = new TreeMap<>();
+        for (EmployeeSuggestion suggestion : employeeRepository.findAllSuggestions()) {
+            byId.put(suggestion.getId(), suggestion);
+            for (String term : termsOf(suggestion)) {
+                sorted.put(key(term, suggestion.getId()), suggestion);
+            }
+        }
+        this.terms = new ConcurrentSkipListMap<>(sorted);
+        logger.info("Autocomplete index: {} employees, {} terms in {} ms",
+                byId.size(), terms.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /** Add an employee, or replace its terms after an update */
+    public void put(Employee employee) {
+        put(new EmployeeSuggestion(employee.getId(), employee.getEmployeeNameInEnglish(),
+                employee.getEmployeeNameInArabic(), employee.getNationalId()));
+    }
+
+    public synchronized void put(EmployeeSuggestion suggestion) {
+        EmployeeSuggestion previous = byId.put(suggestion.getId(), suggestion);
+        if (previous != null) {
+            for (String term : termsOf(previous)) {
+                terms.remove(key(term, previous.getId()));
+            }
+        }
+        for (String term : termsOf(suggestion)) {
+            terms.put(key(term, suggestion.getId()), suggestion);
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        EmployeeSuggestion previous = byId.remove(id);
+        if (previous != null) {
+            for (String term : termsOf(previous)) {
+                terms.remove(key(term, id));
+            }
+        }
+    }
+
+    /**
+     * Up to {@code limit} employees with a term starting with the prefix.
+     */
+    public List<EmployeeSuggestion> suggest(String prefix, int limit) {
+        String normalized = EmployeeSearchService.normalize(prefix == null ? "" : prefix.strip());
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        // An employee may match through several terms; it is listed once, at its best term
+        Set<Long> seen = new LinkedHashSet<>();
+        List<EmployeeSuggestion> suggestions = new ArrayList<>(limit);
+        for (EmployeeSuggestion suggestion
+                : terms.subMap(normalized, true, normalized + Character.MAX_VALUE, false).values()) {
+            if (seen.add(suggestion.getId())) {
+                suggestions.add(suggestion);
+                if (suggestions.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    // The id as four 16-bit chars, most significant first, so that employees
+    // sharing a term stay in id order
+    private static String key(String term, Long id) {
+        long value = id;
+        return new StringBuilder(term.length() + 5)
+                .append(term)
+                .append(SEPARATOR)
+                .append((char) (value >>> 48))
+                .append((char) (value >>> 32))
+                .append((char) (value >>> 16))
+                .append((char) value)
+                .toString();
+    }
+
+    private static Set<String> termsOf(EmployeeSuggestion suggestion) {
+        Set<String> terms = new LinkedHashSet<>();
+        addWordSuffixes(terms, suggestion.getEmployeeNameInEnglish());
+        addWordSuffixes(terms, suggestion.getEmployeeNameInArabic());
+        if (suggestion.getNationalId() != null && !suggestion.getNationalId().isBlank()) {
+            terms.add(EmployeeSearchService.normalize(suggestion.getNationalId().strip()));
+        }
+        return terms;
+    }
+
+    // "ahmed mohamed 1" -> "ahmed mohamed 1", "mohamed 1", "1"
+    private static void addWordSuffixes(Set<String> terms, String name) {
+        if (name == null) {
+            return;
+        }
+        // Single spaces between words, none at the ends
+        String normalized = EmployeeSearchService.normalize(name);
+        StringBuilder words = new StringBuilder(normalized.length());
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                words.append(c);
+            } else if (!words.isEmpty() && words.charAt(words.length() - 1) != ' ') {
+                words.append(' ');
+            }
+        }
+        if (!words.isEmpty() && words.charAt(words.length() - 1) == ' ') {
+            words.setLength(words.length() - 1);
+        }
+
+        String text = words.toString();
+        int start = 0;
+        while (start < text.length()) {
+            terms.add(text.substring(start));
+            int space = text.indexOf(' ', start);
+            if (space < 0) {
+                break;
+            }
+            start = space + 1;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.erpsystem.service;
+
+import com.example.erpsystem.model.Employee;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Handle on the {@link Employee} region of the Hibernate second-level cache.
+ * <p>
+ * Loads by id ({@code findById}, lazy salary-to-employee references) are answered from
+ * the cache. Saves and deletes through JPA update the region on commit, but SQL that
+ * bypasses the persistence context does not; code that writes employee rows that way
+ * must call {@link #evict} or {@link #evictAll} afterwards.
+ */
+@Component
+public class EmployeeCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeCache.class);
+
+    private final jakarta.persistence.Cache cache;
+    private final Statistics statistics;
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public EmployeeCache(EntityManagerFactory entityManagerFactory, MeterRegistry registry) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.cache = sessionFactory.getCache();
+        this.statistics = sessionFactory.getStatistics();
+        registerMeters(registry);
+    }
+
+    public void evict(Long id) {
+        cache.evict(Employee.class, id);
+        evictions.increment();
+    }
+
+    public void evictAll() {
+        cache.evict(Employee.class);
+        evictions.increment();
+        logger.info("Employee cache cleared");
+    }
+
+    public boolean contains(Long id) {
+        return cache.contains(Employee.class, id);
+    }
+
+    public Stats getStats() {
+        CacheRegionStatistics region = regionStatistics();
+        long hits = region.getHitCount();
+        long misses = region.getMissCount();
+        long lookups = hits + misses;
+        double hitRatio = lookups == 0 ? 0.0 : (double) hits / lookups;
+        return new Stats(hits, misses, region.getPutCount(), evictions.sum(), hitRatio);
+    }
+
+    /**
+     * @param puts      employees stored after a miss or a write
+     * @param evictions explicit evictions through this class, single or whole-region
+     */
+    public record Stats(long hits, long misses, long puts, long evictions, double hitRatio) {
+    }
+
+    // Looked up each time: clearing the statistics replaces the per-region counters
+    private CacheRegionStatistics regionStatistics() {
+        return statistics.getDomainDataRegionStatistics(Employee.CACHE_REGION);
+    }
+
+    private void registerMeters(MeterRegistry registry) {
+        FunctionCounter.builder("erp.employee.cache.requests", this, employeeCache -> employeeCache.getStats().hits())
+                .description("Employee loads by id, by whether the second-level cache had them")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("erp.employee.cache.requests", this, employeeCache -> employeeCache.getStats().misses())
+                .description("Employee loads by id, by whether the second-level cache had them")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("erp.employee.cache.puts", this, employeeCache -> employeeCache.getStats().puts())
+                .description("Employees stored in the second-level cache")
+                .register(registry);
+        Gauge.builder("erp.employee.cache.hit.ratio", this, employeeCache -> employeeCache.getStats().hitRatio())
+                .description("Share of employee loads by id answered by the second-level cache")
+                .register(registry);
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.erpsystem.service;
+
+import com.example.erpsystem.dto.EmployeeData;
+import com.example.erpsystem.dto.EmployeeExportFormat;
+import com.example.erpsystem.mapper.EmployeeMapper;
+import com.example.erpsystem.model.Employee;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Writes the whole employee roster, in id order, as NDJSON or CSV. Rows come from a
+ * forward-only cursor in a stateless session and are written as they arrive, so memory
+ * use does not grow with the roster; each export reads one consistent snapshot.
+ */
+@Service
+public class EmployeeExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeExportService.class);
+
+    // Rows per cursor round trip
+    private static final int FETCH_SIZE = 500;
+
+    private static final Pattern PLAIN_NUMBER = Pattern.compile("[+-]?\\d+(\\.\\d+)?");
+
+    // Header names match what the import reads, so an export can be imported elsewhere
+    private static final Map<String, Function<EmployeeData, Object>> CSV_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        CSV_COLUMNS.put("id", EmployeeData::getId);
+        CSV_COLUMNS.put("employeeNameInEnglish", EmployeeData::getEmployeeNameInEnglish);
+        CSV_COLUMNS.put("employeeNameInArabic", EmployeeData::getEmployeeNameInArabic);
+        CSV_COLUMNS.put("nationalId", EmployeeData::getNationalId);
+        CSV_COLUMNS.put("insuranceNumber", EmployeeData::getInsuranceNumber);
+        CSV_COLUMNS.put("titleInEnglish", EmployeeData::getTitleInEnglish);
+        CSV_COLUMNS.put("titleInArabic", EmployeeData::getTitleInArabic);
+        CSV_COLUMNS.put("jobTitleCode", EmployeeData::getJobTitleCode);
+        CSV_COLUMNS.put("companyNameInEnglish", EmployeeData::getCompanyNameInEnglish);
+        CSV_COLUMNS.put("companyNameInArabic", EmployeeData::getCompanyNameInArabic);
+        CSV_COLUMNS.put("companyInsuranceNumber", EmployeeData::getCompanyInsuranceNumber);
+        CSV_COLUMNS.put("companyTaxNumber", EmployeeData::getCompanyTaxNumber);
+        CSV_COLUMNS.put("startDate", EmployeeData::getStartDate);
+        CSV_COLUMNS.put("endDate", EmployeeData::getEndDate);
+        CSV_COLUMNS.put("basicSalaryInEnglish", EmployeeData::getBasicSalaryInEnglish);
+        CSV_COLUMNS.put("basicSalaryInEnglishText", EmployeeData::getBasicSalaryInEnglishText);
+        CSV_COLUMNS.put("basicSalaryInArabicText", EmployeeData::getBasicSalaryInArabicText);
+        CSV_COLUMNS.put("contributionSalary", EmployeeData::getContributionSalary);
+        CSV_COLUMNS.put("variableSalaryInNumber", EmployeeData::getVariableSalaryInNumber);
+        CSV_COLUMNS.put("variableSalaryInEnglishText", EmployeeData::getVariableSalaryInEnglishText);
+        CSV_COLUMNS.put("variableSalaryInArabicText", EmployeeData::getVariableSalaryInArabicText);
+        CSV_COLUMNS.put("educationInEnglish", EmployeeData::getEducationInEnglish);
+        CSV_COLUMNS.put("educationInArabic", EmployeeData::getEducationInArabic);
+        CSV_COLUMNS.put("addressInEnglish", EmployeeData::getAddressInEnglish);
+        CSV_COLUMNS.put("addressInArabic", EmployeeData::getAddressInArabic);
+        CSV_COLUMNS.put("employeePhoto", EmployeeData::getEmployeePhoto);
+    }
+
+    private final SessionFactory sessionFactory;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public EmployeeExportService(EntityManagerFactory entityManagerFactory, ObjectMapper objectMapper) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write every employee to the stream. The stream is flushed but not closed.
+     *
+     * @return number of employees written
+     */
+    public long export(EmployeeExportFormat format, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        long count = switch (format) {
+            case NDJSON -> writeNdjson(out);
+            case CSV -> writeCsv(out);
+        };
+        logger.info("Exported {} employees as {} in {} ms", count, format, (System.nanoTime() - started) / 1_000_000);
+        return count;
+    }
+
+    private long writeNdjson(OutputStream out) throws IOException {
+        // One generator for the whole stream; each row ends with a newline instead of
+        // Jackson's default space between root values, and nothing is flushed per row
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+        ObjectWriter writer = objectMapper.writerFor(EmployeeData.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (generator) {
+            return forEachEmployee(employee -> {
+                try {
+                    writer.writeValue(generator, employee);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private long writeCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        // Without the byte order mark Excel reads the file in the local code page and garbles the Arabic columns
+        writer.write('\uFEFF');
+        writeCsvRow(writer, CSV_COLUMNS.keySet());
+        long count = forEachEmployee(employee -> {
+            try {
+                writeCsvRow(writer, CSV_COLUMNS.values().stream().map(column -> column.apply(employee)).toList());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvRow(Writer writer, Iterable<?> values) throws IOException {
+        boolean first = true;
+        for (Object value : values) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            if (value instanceof String text && isFormula(text)) {
+                writeQuoted(writer, "'" + text);
+            } else if (value != null) {
+                writeCsvCell(writer, value.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Text that a spreadsheet would run as a formula, such as =HYPERLINK(...) in an
+     * address. It is written quoted with a leading apostrophe, which spreadsheets show
+     * as plain text and the import removes again. Numbers such as -500 are left alone.
+     */
+    static boolean isFormula(String value) {
+        if (value.isEmpty() || "=+-@\t\r".indexOf(value.charAt(0)) < 0) {
+            return false;
+        }
+        return !PLAIN_NUMBER.matcher(value).matches();
+    }
+
+    // Quoted only when needed: amounts such as "5,000" and free-text fields
+    private static void writeCsvCell(Writer writer, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (quote) {
+            writeQuoted(writer, value);
+        } else {
+            writer.write(value);
+        }
+    }
+
+    private static void writeQuoted(Writer writer, String value) throws IOException {
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    /**
+     * Stream employees in id order. PostgreSQL only keeps a cursor open inside a
+     * transaction; without one the driver would read the whole result at once.
+     */
+    private long forEachEmployee(Consumer<EmployeeData> action) throws IOException {
+        long count = 0;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction transaction = session.beginTransaction();
+            try (ScrollableResults<Employee> employees = session
+                    .createQuery("SELECT e FROM Employee e ORDER BY e.id", Employee.class)
+                    .setFetchSize(FETCH_SIZE)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (employees.next()) {
+                    action.accept(EmployeeMapper.toDto(employees.get()));
+                    count++;
+                }
+            } catch (UncheckedIOException e) {
+                // The client went away or the response could not be written
+                throw e.getCause();
+            } finally {
+                transaction.rollback();
+            }
+        }
+        return count;
+    }
+}
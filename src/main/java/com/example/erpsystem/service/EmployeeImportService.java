@@ -0,0 +1,340 @@
+package com.example.erpsystem.service;
+
+import com.example.erpsystem.dto.EmployeeData;
+import com.example.erpsystem.dto.EmployeeImportReport;
+import com.example.erpsystem.mapper.EmployeeMapper;
+import com.example.erpsystem.model.Employee;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Bulk employee import from .xlsx or .csv. The first non-blank row is the header; its
+ * cells name employee fields either as in the form ("employeeNameInEnglish") or as in
+ * the table ("employee_name_english"), ignoring case, spaces and punctuation.
+ * <p>
+ * Rows are read as a stream, mapped through {@link EmployeeMapper} and inserted
+ * {@value #CHUNK_SIZE} to a transaction in JDBC batches. A row that fails validation or
+ * the insert is reported by its row number and skipped; the other rows are imported.
+ */
+@Service
+public class EmployeeImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeImportService.class);
+
+    // Rows per insert statement batch, equal to the id sequence allocation size
+    private static final int BATCH_SIZE = 50;
+    // Rows per transaction; a failed chunk is retried row by row to find the bad rows
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    // Length of the employee varchar columns
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private static final Map<String, BiConsumer<EmployeeData, String>> COLUMNS = new HashMap<>();
+    private static final BiConsumer<EmployeeData, String> NAME_COLUMN = EmployeeData::setEmployeeNameInEnglish;
+
+    static {
+        column(EmployeeData::setStartDate, "startDate", "start_date");
+        column(EmployeeData::setEndDate, "endDate", "end_date");
+        column(EmployeeData::setCompanyNameInEnglish, "companyNameInEnglish", "company_name_english");
+        column(EmployeeData::setCompanyNameInArabic, "companyNameInArabic", "company_name_arabic");
+        column(NAME_COLUMN, "employeeNameInEnglish", "employee_name_english");
+        column(EmployeeData::setEmployeeNameInArabic, "employeeNameInArabic", "employee_name_arabic");
+        column(EmployeeData::setNationalId, "nationalId", "national_id");
+        column(EmployeeData::setInsuranceNumber, "insuranceNumber", "insurance_number");
+        column(EmployeeData::setTitleInEnglish, "titleInEnglish", "title_english");
+        column(EmployeeData::setTitleInArabic, "titleInArabic", "title_arabic");
+        column(EmployeeData::setEducationInEnglish, "educationInEnglish", "education_english");
+        column(EmployeeData::setEducationInArabic, "educationInArabic", "education_arabic");
+        column(EmployeeData::setAddressInEnglish, "addressInEnglish", "address_english");
+        column(EmployeeData::setAddressInArabic, "addressInArabic", "address_arabic");
+        column(EmployeeData::setBasicSalaryInEnglish, "basicSalaryInEnglish", "basic_salary");
+        column(EmployeeData::setBasicSalaryInArabic, "basicSalaryInArabic");
+        column(EmployeeData::setBasicSalaryInEnglishText, "basicSalaryInEnglishText", "basic_salary_english_text");
+        column(EmployeeData::setBasicSalaryInArabicText, "basicSalaryInArabicText", "basic_salary_arabic_text");
+        column(EmployeeData::setCompanyInsuranceNumber, "companyInsuranceNumber", "company_insurance_number");
+        column(EmployeeData::setCompanyTaxNumber, "companyTaxNumber", "company_tax_number");
+        column(EmployeeData::setJobTitleCode, "jobTitleCode", "job_title_code");
+        column(EmployeeData::setContributionSalary, "contributionSalary", "contribution_salary");
+        column(EmployeeData::setVariableSalaryInNumber, "variableSalaryInNumber", "variable_salary_in_number");
+        column(EmployeeData::setVariableSalaryInEnglishText, "variableSalaryInEnglishText",
+                "variable_salary_in_english_text");
+        column(EmployeeData::setVariableSalaryInArabicText, "variableSalaryInArabicText",
+                "variable_salary_in_arabic_text");
+    }
+
+    private final SessionFactory sessionFactory;
+    private final EmployeeAutocompleteIndex employeeAutocompleteIndex;
+
+    @Autowired
+    public EmployeeImportService(EntityManagerFactory entityManagerFactory,
+                                 EmployeeAutocompleteIndex employeeAutocompleteIndex) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.employeeAutocompleteIndex = employeeAutocompleteIndex;
+    }
+
+    /**
+     * @throws IllegalArgumentException when the file is not .xlsx or .csv, or its header
+     *                                  has no English employee name column
+     */
+    public EmployeeImportReport importEmployees(MultipartFile file) throws IOException {
+        String fileName = file.getOriginalFilename() == null ? "" : file.getOriginalFilename();
+        String extension = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        long started = System.nanoTime();
+        ImportRun run = new ImportRun();
+
+        switch (extension) {
+            case "csv" -> {
+                try (InputStream in = file.getInputStream()) {
+                    SpreadsheetReader.readCsv(in, run::row);
+                }
+            }
+            case "xlsx" -> {
+                // The zip entries of a workbook are read out of order, which needs a file
+                Path workbook = Files.createTempFile("employee-import", ".xlsx");
+                try {
+                    file.transferTo(workbook);
+                    SpreadsheetReader.readXlsx(workbook, run::row);
+                } finally {
+                    Files.deleteIfExists(workbook);
+                }
+            }
+            default -> throw new IllegalArgumentException("Only .xlsx and .csv files can be imported");
+        }
+        run.flush();
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Imported {} of {} employee rows from {} in {} ms ({} failed)",
+                run.imported, run.rowsRead, fileName, elapsedMillis, run.failed);
+        return new EmployeeImportReport(fileName, run.rowsRead, run.imported, run.failed, run.errors,
+                run.ignoredColumns, elapsedMillis);
+    }
+
+    private static void column(BiConsumer<EmployeeData, String> setter, String... names) {
+        for (String name : names) {
+            COLUMNS.put(columnKey(name), setter);
+        }
+    }
+
+    // "Employee Name (English)", "employee_name_english" -> "employeenameenglish"
+    private static String columnKey(String header) {
+        StringBuilder key = new StringBuilder(header.length());
+        for (int i = 0; i < header.length(); i++) {
+            char c = header.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                key.append(Character.toLowerCase(c));
+            }
+        }
+        return key.toString();
+    }
+
+    private static boolean isBlank(List<String> cells) {
+        for (String cell : cells) {
+            if (!cell.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The export writes '=... for text that would run as a formula; read it back as written
+    private static String withoutFormulaGuard(String value) {
+        if (value.startsWith("'") && EmployeeExportService.isFormula(value.substring(1))) {
+            return value.substring(1);
+        }
+        return value;
+    }
+
+    private record PendingRow(int row, Employee employee) {
+    }
+
+    /**
+     * State of one import. Rows arrive from the reader in file order on one thread.
+     */
+    private final class ImportRun {
+
+        private BiConsumer<EmployeeData, String>[] setters;
+        private String[] headers;
+        private final List<PendingRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        private int rowsRead;
+        private int imported;
+        private int failed;
+        private final List<EmployeeImportReport.RowError> errors = new ArrayList<>();
+        private final List<String> ignoredColumns = new ArrayList<>();
+
+        void row(int rowNumber, List<String> cells) {
+            if (isBlank(cells)) {
+                return;
+            }
+            if (setters == null) {
+                readHeader(cells);
+                return;
+            }
+            rowsRead++;
+
+            EmployeeData data = new EmployeeData();
+            for (int i = 0; i < Math.min(cells.size(), setters.length); i++) {
+                String value = withoutFormulaGuard(cells.get(i).strip());
+                if (setters[i] == null || value.isEmpty()) {
+                    continue;
+                }
+                if (value.length() > MAX_TEXT_LENGTH) {
+                    fail(rowNumber, headers[i] + " is longer than " + MAX_TEXT_LENGTH + " characters");
+                    return;
+                }
+                setters[i].accept(data, value);
+            }
+
+            String problem = validate(data);
+            if (problem != null) {
+                fail(rowNumber, problem);
+                return;
+            }
+            chunk.add(new PendingRow(rowNumber, EmployeeMapper.toEntity(data)));
+            if (chunk.size() == CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void readHeader(List<String> cells) {
+            setters = new BiConsumer[cells.size()];
+            headers = new String[cells.size()];
+            boolean hasName = false;
+            for (int i = 0; i < cells.size(); i++) {
+                headers[i] = cells.get(i).strip();
+                setters[i] = COLUMNS.get(columnKey(headers[i]));
+                if (setters[i] == null && !headers[i].isEmpty()) {
+                    ignoredColumns.add(headers[i]);
+                }
+                hasName |= setters[i] == NAME_COLUMN;
+            }
+            if (!hasName) {
+                throw new IllegalArgumentException(
+                        "The header row has no employeeNameInEnglish column; found " + List.of(headers));
+            }
+        }
+
+        // The mapper falls back to empty values on bad input; the import reports it instead
+        private String validate(EmployeeData data) {
+            if (data.getEmployeeNameInEnglish() == null) {
+                return "employeeNameInEnglish is required";
+            }
+            String problem = checkDate("startDate", data.getStartDate());
+            if (problem == null) {
+                problem = checkDate("endDate", data.getEndDate());
+            }
+            if (problem == null) {
+                problem = checkAmount("basicSalaryInEnglish", data.getBasicSalaryInEnglish());
+            }
+            if (problem == null) {
+                problem = checkAmount("basicSalaryInArabic", data.getBasicSalaryInArabic());
+            }
+            if (problem == null) {
+                problem = checkAmount("contributionSalary", data.getContributionSalary());
+            }
+            if (problem == null) {
+                problem = checkAmount("variableSalaryInNumber", data.getVariableSalaryInNumber());
+            }
+            return problem;
+        }
+
+        private String checkDate(String field, String value) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                LocalDate.parse(value);
+                return null;
+            } catch (DateTimeParseException e) {
+                return field + " '" + value + "' is not a date (yyyy-MM-dd)";
+            }
+        }
+
+        // Same cleanup as the mapper: grouping separators and currency text are dropped
+        private String checkAmount(String field, String value) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                new BigDecimal(value.replaceAll("[^\\d.]", ""));
+                return null;
+            } catch (NumberFormatException e) {
+                return field + " '" + value + "' is not an amount";
+            }
+        }
+
+        private void fail(int rowNumber, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new EmployeeImportReport.RowError(rowNumber, message));
+            }
+        }
+
+        void flush() {
+            if (!chunk.isEmpty()) {
+                persist(chunk);
+                chunk.clear();
+            }
+        }
+
+        private void persist(List<PendingRow> rows) {
+            try (Session session = sessionFactory.openSession()) {
+                session.setJdbcBatchSize(BATCH_SIZE);
+                // Imported employees are not read back soon; keep them out of the entity cache
+                session.setCacheMode(CacheMode.IGNORE);
+                Transaction transaction = session.beginTransaction();
+                try {
+                    for (PendingRow row : rows) {
+                        session.persist(row.employee());
+                    }
+                    transaction.commit();
+                } catch (RuntimeException e) {
+                    if (transaction.isActive()) {
+                        transaction.rollback();
+                    }
+                    throw e;
+                }
+            } catch (RuntimeException e) {
+                if (rows.size() == 1) {
+                    fail(rows.get(0).row(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                    return;
+                }
+                // The batch rolled back as a whole; insert the rows one by one to find the bad ones
+                for (PendingRow row : rows) {
+                    row.employee().setId(null);
+                    persist(List.of(row));
+                }
+                return;
+            }
+
+            imported += rows.size();
+            for (PendingRow row : rows) {
+                employeeAutocompleteIndex.put(row.employee());
+            }
+        }
+    }
+}
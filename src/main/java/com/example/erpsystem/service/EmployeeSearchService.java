@@ -0,0 +1,131 @@
+package com.example.erpsystem.service;
+
+import com.example.erpsystem.dto.EmployeeSearchResult;
+import com.example.erpsystem.dto.EmployeeSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Employee search over English and Arabic names and companies, national ID and
+ * insurance number. PostgreSQL keeps a normalized copy of those columns in
+ * employee.search_text with a trigram index (see db/migration/V2__employee_search.sql),
+ * so a substring match is an index lookup rather than a scan. The query is normalized
+ * by the same SQL function, which makes "احمد" find "أحمد" and "مكتبه" find "مكتبة".
+ * <p>
+ * Matches whose English name starts with the query come first, then matches at the
+ * start of any word, then the rest; within each group by trigram similarity to the
+ * query, then id. Every match found by the trigram index takes part in the grouping.
+ * Similarity costs a trigram comparison per row, so it only orders the best
+ * {@value #MAX_CANDIDATES} matches by group and length; when a query matches more
+ * than that, the result says it was truncated.
+ */
+@Service
+public class EmployeeSearchService {
+
+    // Matches similarity() is computed for. Shorter texts come first within a group, as
+    // the query covers more of them; a broad query like "om" matches most of the table
+    private static final int MAX_CANDIDATES = 1000;
+
+    private static final String SEARCH_SQL = "SELECT e.id, e.employee_name_english, e.title_english, e.national_id,"
+            + " e.start_date, e.end_date, e.employee_photo, ranked.candidates"
+            + " FROM (SELECT id, prefix_match, word_match,"
+            + "              similarity(erp_search_normalize(?), search_text) AS score,"
+            + "              count(*) OVER () AS candidates"
+            + "       FROM (SELECT id, search_text,"
+            + "                    search_text LIKE erp_search_normalize(?) || '%' AS prefix_match,"
+            + "                    search_text LIKE '% ' || erp_search_normalize(?) || '%' AS word_match"
+            + "             FROM employee"
+            + "             WHERE search_text LIKE '%' || erp_search_normalize(?) || '%'"
+            + "             ORDER BY prefix_match DESC, word_match DESC, length(search_text), id"
+            + "             LIMIT " + MAX_CANDIDATES + ") matches"
+            + "       ORDER BY prefix_match DESC, word_match DESC, score DESC, id"
+            + "       LIMIT ? OFFSET ?) ranked"
+            + " JOIN employee e ON e.id = ranked.id"
+            + " ORDER BY ranked.prefix_match DESC, ranked.word_match DESC, ranked.score DESC, ranked.id";
+
+    private static final RowMapper<EmployeeSummary> SUMMARY = (rs, row) -> new EmployeeSummary(
+            rs.getLong("id"),
+            rs.getString("employee_name_english"),
+            rs.getString("title_english"),
+            rs.getString("national_id"),
+            toLocalDate(rs.getDate("start_date")),
+            toLocalDate(rs.getDate("end_date")),
+            rs.getString("employee_photo"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public EmployeeSearchService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * One page of ranked matches for the query.
+     *
+     * @param page zero-based page number
+     */
+    public EmployeeSearchResult search(String query, int page, int size) {
+        String term = query == null ? "" : query.strip();
+        if (term.isEmpty()) {
+            return new EmployeeSearchResult(term, List.of(), 0, size, false, false);
+        }
+
+        String pattern = escapeLike(term);
+        long[] candidates = new long[1];
+        // One extra row tells whether there is a next page
+        List<EmployeeSummary> rows = jdbcTemplate.query(SEARCH_SQL, (rs, row) -> {
+            candidates[0] = rs.getLong("candidates");
+            return SUMMARY.mapRow(rs, row);
+        }, term, pattern, pattern, pattern, size + 1, (long) page * size);
+        boolean hasNext = rows.size() > size;
+        return new EmployeeSearchResult(term, hasNext ? rows.subList(0, size) : rows, page, size, hasNext,
+                candidates[0] >= MAX_CANDIDATES);
+    }
+
+    /**
+     * Java twin of erp_search_normalize() in db/migration/V2__employee_search.sql, for in-memory
+     * indexes that must match the way the database search folds text. Keep both in step.
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        StringBuilder normalized = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c >= '\u064B' && c <= '\u065F') || c == '\u0670' || c == '\u0640') {
+                continue; // diacritics and tatweel
+            }
+            switch (c) {
+                case '\u0623', '\u0625', '\u0622', '\u0671' -> c = '\u0627'; // alef variants
+                case '\u0649' -> c = '\u064A'; // alef maqsura
+                case '\u0629' -> c = '\u0647'; // ta marbuta
+                default -> {
+                    if (c >= '\u0660' && c <= '\u0669') {
+                        c = (char) ('0' + c - '\u0660');
+                    } else if (c >= '\u06F0' && c <= '\u06F9') {
+                        c = (char) ('0' + c - '\u06F0');
+                    }
+                }
+            }
+            normalized.append(c);
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    // The query is matched literally, wildcards included
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.erpsystem.service;
 
+import com.example.erpsystem.dto.EmployeeChangeSet;
+import com.example.erpsystem.dto.EmployeeData;
+import com.example.erpsystem.mapper.EmployeeMapper;
 import com.example.erpsystem.model.Employee;
 import com.example.erpsystem.repository.EmployeeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -26,6 +30,27 @@ public class EmployeeService {
         return EmployeeRepository.save(contract);
     }
 
+    /**
+     * Apply an edit to a stored employee. Only the fields that differ are copied onto
+     * the managed entity, so the UPDATE sets just those columns, and no statement is
+     * sent when nothing differs. A missing photo keeps the current one, since the form
+     * only sends a photo when a new file was uploaded.
+     *
+     * @return the changed fields, or empty if there is no employee with this id
+     */
+    @Transactional
+    public Optional<EmployeeChangeSet> updateEmployee(Long id, EmployeeData data) {
+        return EmployeeRepository.findById(id).map(employee -> {
+            Employee edited = EmployeeMapper.toEntity(data);
+            if (edited.getEmployeePhoto() == null) {
+                edited.setEmployeePhoto(employee.getEmployeePhoto());
+            }
+            // Fill the default end date as saving would, so it is not seen as a change
+            edited.calculateEndDate();
+            return new EmployeeChangeSet(employee, EmployeeMapper.applyChanges(edited, employee));
+        });
+    }
+
     public void deleteContract(Long id) {
         EmployeeRepository.deleteById(id);
     }
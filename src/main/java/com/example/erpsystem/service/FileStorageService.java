@@ -16,6 +16,8 @@ import java.util.UUID;
 public class FileStorageService {
 
     private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
+    // The multipart limit is sized for spreadsheet imports; photos keep their own cap
+    private static final long MAX_PHOTO_SIZE = 5L * 1024 * 1024;
     private final Path fileStorageLocation;
 
     public FileStorageService() {
@@ -40,6 +42,9 @@ public class FileStorageService {
             if (contentType == null || !contentType.startsWith("image/")) {
                 throw new RuntimeException("Only image files are allowed");
             }
+            if (file.getSize() > MAX_PHOTO_SIZE) {
+                throw new RuntimeException("Image files may be at most 5MB");
+            }
 
             // Generate unique filename
             String originalFileName = file.getOriginalFilename();
@@ -0,0 +1,212 @@
+package com.example.erpsystem.service;
+
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.pdf.BaseFont;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Application-wide registry of iText fonts. Fonts are created once and shared by
+ * every renderer.
+ * <p>
+ * TrueType fonts are created from the font bytes, read once per file onto the heap.
+ * A font created from a file path keeps one buffered reader that iText uses without
+ * locking whenever a writer embeds or subsets the font, so concurrent documents could
+ * get corrupt font streams; reads of a byte array keep no state, which makes these
+ * fonts safe to use from several writers at once. Fonts can be loaded in the
+ * background: a key declared with {@link #expect} makes lookups wait until its
+ * loading has finished.
+ */
+@Component
+public class FontRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(FontRegistry.class);
+
+    // Standard Latin fonts (built into every PDF viewer, never embedded)
+    public static final String HELVETICA = BaseFont.HELVETICA;
+    public static final String HELVETICA_BOLD = BaseFont.HELVETICA_BOLD;
+
+    // Key suffix of the non-subset variant of an embedded font
+    public static final String FULL_EMBED_SUFFIX = "-full-embed";
+
+    // Background font loading runs on its own threads so application startup does not wait for font I/O
+    static final Executor LOADER = task -> Thread.ofVirtual().name("font-loader").start(task);
+    // Longest a lookup waits for a font that is still loading
+    private static final long LOADING_TIMEOUT_SECONDS = 30;
+
+    private final ConcurrentMap<String, RegisteredFont> fonts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<?>> loading = new ConcurrentHashMap<>();
+    private final LongAdder misses = new LongAdder();
+    // Font files by classpath location, shared by the keys registered from the same file
+    private final ConcurrentMap<String, byte[]> fontFiles = new ConcurrentHashMap<>();
+
+    public FontRegistry() {
+        // The first font also initializes iText's font classes, which takes a while
+        expect(CompletableFuture.runAsync(() -> {
+            registerStandardFont(HELVETICA);
+            registerStandardFont(HELVETICA_BOLD);
+        }, LOADER), HELVETICA, HELVETICA_BOLD);
+    }
+
+    /**
+     * Look up a registered font, or null if nothing is registered under the key.
+     */
+    public BaseFont get(String key) {
+        RegisteredFont font = fonts.get(key);
+        if (font == null && awaitLoading(key)) {
+            font = fonts.get(key);
+        }
+        if (font == null) {
+            misses.increment();
+            return null;
+        }
+        font.lookups.increment();
+        return font.baseFont;
+    }
+
+    /**
+     * Look up a font, preferring its full-embed variant when fullEmbed is set and one
+     * is registered.
+     */
+    public BaseFont get(String key, boolean fullEmbed) {
+        if (fullEmbed && isRegistered(key + FULL_EMBED_SUFFIX)) {
+            return get(key + FULL_EMBED_SUFFIX);
+        }
+        return get(key);
+    }
+
+    /**
+     * One of the standard 14 PDF fonts with WinAnsi encoding, created on first use.
+     */
+    public BaseFont getStandardFont(String name) {
+        BaseFont font = get(name);
+        return font != null ? font : registerStandardFont(name);
+    }
+
+    /**
+     * Register an embedded TrueType font from the classpath with Identity-H encoding.
+     * The font file is read into memory once, however many keys use it.
+     *
+     * @param subset false to embed the whole font file instead of the glyphs used
+     */
+    public BaseFont registerTrueType(String key, String classpathLocation, boolean subset)
+            throws IOException, DocumentException {
+        byte[] ttf = fontBytes(classpathLocation);
+        // Uncached: the subset flag must not leak into another key built from the same file
+        BaseFont baseFont = BaseFont.createFont(classpathLocation, BaseFont.IDENTITY_H, BaseFont.EMBEDDED, false, ttf, null);
+        baseFont.setSubset(subset);
+        fonts.put(key, new RegisteredFont(baseFont));
+        logger.info("Registered font '{}' from {} ({} bytes, subset: {})", key, classpathLocation, ttf.length, subset);
+        return baseFont;
+    }
+
+    /**
+     * Declare fonts that are being loaded in the background. Until the loading
+     * completes, lookups of the keys wait for it instead of missing.
+     */
+    public void expect(CompletableFuture<?> fontLoading, String... keys) {
+        for (String key : keys) {
+            loading.put(key, fontLoading);
+        }
+        fontLoading.whenComplete((result, error) -> {
+            for (String key : keys) {
+                loading.remove(key, fontLoading);
+            }
+        });
+    }
+
+    public boolean isRegistered(String key) {
+        return fonts.containsKey(key) || (awaitLoading(key) && fonts.containsKey(key));
+    }
+
+    /**
+     * Wait for the background loading of a key, if there is one.
+     *
+     * @return true if the key was loading
+     */
+    private boolean awaitLoading(String key) {
+        CompletableFuture<?> fontLoading = loading.get(key);
+        if (fontLoading == null) {
+            return false;
+        }
+        try {
+            fontLoading.get(LOADING_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            // The loader reports its own failures; the key simply stays unregistered
+        } catch (TimeoutException e) {
+            logger.error("Font '{}' is still loading after {} s", key, LOADING_TIMEOUT_SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+
+    private byte[] fontBytes(String classpathLocation) throws IOException {
+        byte[] ttf = fontFiles.get(classpathLocation);
+        if (ttf == null) {
+            try (InputStream in = new ClassPathResource(classpathLocation).getInputStream()) {
+                ttf = in.readAllBytes();
+            }
+            byte[] previous = fontFiles.putIfAbsent(classpathLocation, ttf);
+            ttf = previous != null ? previous : ttf;
+        }
+        return ttf;
+    }
+
+    public Stats getStats() {
+        long fontFileBytes = 0;
+        for (byte[] ttf : fontFiles.values()) {
+            fontFileBytes += ttf.length;
+        }
+        long lookups = 0;
+        Map<String, Long> lookupsByFont = new LinkedHashMap<>();
+        for (Map.Entry<String, RegisteredFont> entry : fonts.entrySet()) {
+            long count = entry.getValue().lookups.sum();
+            lookups += count;
+            lookupsByFont.put(entry.getKey(), count);
+        }
+        return new Stats(fonts.size(), loading.size(), fontFileBytes, lookups, misses.sum(), lookupsByFont);
+    }
+
+    private BaseFont registerStandardFont(String name) {
+        RegisteredFont font = fonts.computeIfAbsent(name, key -> {
+            try {
+                return new RegisteredFont(BaseFont.createFont(key, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED));
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not create standard font " + key, e);
+            }
+        });
+        return font.baseFont;
+    }
+
+    /**
+     * @param fontFileBytes heap held by the TrueType font files, each file counted once
+     */
+    public record Stats(int fontsLoaded, int fontsLoading, long fontFileBytes, long lookups, long misses,
+                        Map<String, Long> lookupsByFont) {
+    }
+
+    private static final class RegisteredFont {
+        private final BaseFont baseFont;
+        private final LongAdder lookups = new LongAdder();
+
+        private RegisteredFont(BaseFont baseFont) {
+            this.baseFont = baseFont;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.erpsystem.service;
+
+import com.example.erpsystem.dto.EmployeeData;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfSmartCopy;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Renders insurance forms for many employees on a worker pool sized to the
+ * available cores and streams them out as they finish.
+ */
+@Service
+public class InsuranceBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InsuranceBatchService.class);
+
+    private final PDFService pdfService;
+    private final ExecutorService executor;
+    private final int workers;
+
+    @Autowired
+    public InsuranceBatchService(PDFService pdfService) {
+        this.pdfService = pdfService;
+        this.workers = Runtime.getRuntime().availableProcessors();
+        this.executor = Executors.newFixedThreadPool(workers, namedThreadFactory("insurance-batch-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Write one PDF entry per employee into a ZIP. Entries are written in completion
+     * order and at most two PDFs per worker are held in memory at any time.
+     * Failed employees are listed in an errors.txt entry instead of aborting the batch.
+     */
+    public void writeZip(List<EmployeeData> employees, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        List<String> errors = new ArrayList<>();
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // PDFs are already compressed, so don't spend CPU deflating them again
+        zip.setLevel(Deflater.BEST_SPEED);
+
+        CompletionService<RenderedForm> completion = new ExecutorCompletionService<>(executor);
+        Iterator<EmployeeData> pending = employees.iterator();
+        int maxInFlight = workers * 2;
+        int inFlight = 0;
+
+        try {
+            while (inFlight < maxInFlight && pending.hasNext()) {
+                submit(completion, pending.next());
+                inFlight++;
+            }
+
+            while (inFlight > 0) {
+                RenderedForm form = completion.take().get();
+                inFlight--;
+
+                if (pending.hasNext()) {
+                    submit(completion, pending.next());
+                    inFlight++;
+                }
+
+                if (form.error() != null) {
+                    errors.add(describe(form.employee()) + ": " + form.error().getMessage());
+                    continue;
+                }
+
+                zip.putNextEntry(new ZipEntry(entryName(form.employee())));
+                zip.write(form.pdf());
+                zip.closeEntry();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Insurance batch interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Insurance batch failed", e.getCause());
+        }
+
+        if (!errors.isEmpty()) {
+            zip.putNextEntry(new ZipEntry("errors.txt"));
+            zip.write(String.join(System.lineSeparator(), errors).getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        zip.finish();
+        zip.flush();
+
+        logger.info("Insurance batch: {} forms, {} failed, {} ms",
+                employees.size() - errors.size(), errors.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Concatenate the forms into one print-ready PDF, in the order given. Forms are
+     * rendered in parallel with full font embedding and appended through
+     * PdfSmartCopy, so the template resources and fonts are written once and each
+     * page goes to the output as soon as it is appended.
+     */
+    public void writeMergedPdf(List<EmployeeData> employees, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        int merged = 0;
+        int failed = 0;
+
+        Document document = new Document();
+        PdfSmartCopy copy;
+        try {
+            copy = new PdfSmartCopy(document, out);
+            copy.setCloseStream(false);
+            copy.setFullCompression();
+        } catch (DocumentException e) {
+            throw new IOException("Could not start merged PDF", e);
+        }
+
+        // Futures are consumed in submission order to keep the employee order
+        Deque<Future<RenderedForm>> window = new ArrayDeque<>();
+        Iterator<EmployeeData> pending = employees.iterator();
+        int maxInFlight = workers * 2;
+
+        try {
+            while (window.size() < maxInFlight && pending.hasNext()) {
+                window.add(executor.submit(renderTask(pending.next(), true)));
+            }
+
+            while (!window.isEmpty()) {
+                RenderedForm form = window.poll().get();
+                if (pending.hasNext()) {
+                    window.add(executor.submit(renderTask(pending.next(), true)));
+                }
+
+                if (form.error() != null) {
+                    failed++;
+                    continue;
+                }
+
+                if (!document.isOpen()) {
+                    document.open();
+                }
+                PdfReader reader = new PdfReader(form.pdf());
+                copy.addDocument(reader);
+                copy.freeReader(reader);
+                reader.close();
+                merged++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            window.forEach(future -> future.cancel(true));
+            throw new IOException("Merged insurance batch interrupted", e);
+        } catch (ExecutionException | DocumentException e) {
+            window.forEach(future -> future.cancel(true));
+            throw new IOException("Merged insurance batch failed", e);
+        }
+
+        if (merged == 0) {
+            throw new IOException("None of the " + employees.size() + " insurance forms could be generated");
+        }
+        document.close();
+
+        logger.info("Merged insurance batch: {} forms, {} failed, {} ms",
+                merged, failed, System.currentTimeMillis() - start);
+    }
+
+    private void submit(CompletionService<RenderedForm> completion, EmployeeData employee) {
+        completion.submit(renderTask(employee, false));
+    }
+
+    private Callable<RenderedForm> renderTask(EmployeeData employee, boolean embedFullFonts) {
+        return () -> {
+            try {
+                return new RenderedForm(employee, pdfService.fillInsuranceForm(employee, embedFullFonts), null);
+            } catch (Exception e) {
+                logger.error("Error generating insurance PDF for {}: {}", describe(employee), e.getMessage(), e);
+                return new RenderedForm(employee, null, e);
+            }
+        };
+    }
+
+    static String entryName(EmployeeData employee) {
+        String name = employee.getEmployeeNameInEnglish() != null ? employee.getEmployeeNameInEnglish() : "employee";
+        return "insurance_" + employee.getId() + "_" + name.trim().replaceAll("[^\\p{L}\\p{N}._-]+", "_") + ".pdf";
+    }
+
+    private static String describe(EmployeeData employee) {
+        return "ID " + employee.getId() + " (" + employee.getEmployeeNameInEnglish() + ")";
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record RenderedForm(EmployeeData employee, byte[] pdf, Exception error) {
+    }
+}
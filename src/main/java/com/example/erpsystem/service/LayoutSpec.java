@@ -0,0 +1,71 @@
+package com.example.erpsystem.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Declarative description of what gets drawn on a PDF template: which AcroForm
+ * fields are filled, and where number boxes and text go on each page. Loaded from
+ * a JSON file next to the template and compiled into a {@link RenderPlan}.
+ *
+ * @param pages      number of pages the layout was written for
+ * @param boxFont    default font key for box elements
+ * @param textFont   default font key for text elements
+ * @param formFields AcroForm field name -> EmployeeData property
+ * @param elements   drawing instructions, executed in order per page
+ */
+public record LayoutSpec(int pages,
+                         String boxFont,
+                         String textFont,
+                         Map<String, String> formFields,
+                         List<Element> elements) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .enable(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES);
+
+    public static LayoutSpec read(InputStream in) throws IOException {
+        return MAPPER.readValue(in, LayoutSpec.class);
+    }
+
+    /**
+     * One drawing instruction. Optional attributes fall back to the renderer defaults.
+     *
+     * @param source   EmployeeData property holding the value
+     * @param page     1-based page number
+     * @param boxCount boxes of a salary field, or of a plain box row whose empty
+     *                 boxes then go into the page's box grid
+     * @param font     font key in the FontRegistry, overrides the spec default
+     * @param label    name used in logs, defaults to the source property
+     */
+    public record Element(Type type,
+                          String source,
+                          int page,
+                          float x,
+                          float y,
+                          Float lineWidth,
+                          Integer boxCount,
+                          Float fontSize,
+                          String font,
+                          String label) {
+    }
+
+    public enum Type {
+        /** One box per digit */
+        @JsonProperty("boxes") BOXES,
+        /** Whole amount right-aligned in a fixed number of boxes */
+        @JsonProperty("salary-boxes") SALARY_BOXES,
+        /** Six digits split 3/3 by a slash */
+        @JsonProperty("code-with-slash") CODE_WITH_SLASH,
+        /** YYYY-MM-DD date as boxes separated by slashes */
+        @JsonProperty("date-boxes") DATE_BOXES,
+        /** Shaped right-to-left text */
+        @JsonProperty("text") TEXT
+    }
+}
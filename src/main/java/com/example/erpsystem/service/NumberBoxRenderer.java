@@ -1,38 +1,46 @@
 package com.example.erpsystem.service;
 
-import com.example.erpsystem.dto.EmployeeData;
 import com.itextpdf.text.BaseColor;
 import com.itextpdf.text.pdf.*;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
 public class NumberBoxRenderer {
 
+    private static final Logger logger = LoggerFactory.getLogger(NumberBoxRenderer.class);
+
     // Constants for consistent styling
-    private static final float BOX_WIDTH = 16.5f;
-    private static final float BOX_HEIGHT = 21f;
+    static final float BOX_WIDTH = 16.5f;
+    static final float BOX_HEIGHT = 21f;
     private static final float GAP = 0.2f;
-    private static final float LINE_THICKNESS = 0.6f;
+    static final float LINE_THICKNESS = 0.6f;
     private static final float FONT_SIZE = 12f;
+    private static final float SLASH_FONT_SIZE = 14f;
+    private static final float CODE_SLASH_WIDTH = 10f;
+    private static final float DATE_SLASH_WIDTH = 8f;
+    private static final int CODE_DIGITS = 6;
+    private static final int DATE_DIGITS = 8;
+
+    private final ArabicFontService arabicFontService;
 
     @Autowired
-    private ArabicFontService arabicFontService;
+    public NumberBoxRenderer(ArabicFontService arabicFontService) {
+        this.arabicFontService = arabicFontService;
+    }
 
     /**
      * Professional method with customizable line thickness and height
      */
-    public void drawProfessionalBoxes(PdfStamper stamper, String number, 
+    public void drawProfessionalBoxes(PdfContentByte canvas, BaseFont baseFont, String number, 
                                     float startX, float startY, String fieldName,
                                     float lineThickness) throws Exception {
-        PdfContentByte canvas = stamper.getOverContent(1);
-        
-        BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
-        
         char[] digits = number.toCharArray();
         
-        System.out.println("🔲 Drawing " + fieldName + ": " + number + " at [" + startX + "," + startY + "] with thickness: " + lineThickness);
+        logger.debug("Drawing {}: {} at [{},{}] with thickness {}", fieldName, number, startX, startY, lineThickness);
         
         for (int i = 0; i < digits.length; i++) {
             float x = startX + (i * (BOX_WIDTH + GAP));
@@ -70,25 +78,19 @@ public class NumberBoxRenderer {
             canvas.endText();
         }
         
-        System.out.println("✅ Completed " + fieldName);
+        logger.trace("Completed {}", fieldName);
     }
 
     /**
      * Draw numbers with slash separator in the middle (for TitleCode: 123/456)
      */
-    public void drawNumberWithSlashSeparator(PdfStamper stamper, String number, 
+    public void drawNumberWithSlashSeparator(PdfContentByte canvas, BaseFont baseFont, String number, 
                                            float startX, float startY, String fieldName) throws Exception {
-        PdfContentByte canvas = stamper.getOverContent(1);
-        
-        float slashWidth = 10f;
-        
-        BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
-        
         // Ensure we have exactly 6 digits
         String paddedNumber = String.format("%06d", Integer.parseInt(number));
         char[] digits = paddedNumber.toCharArray();
         
-        System.out.println("🔲 Drawing " + fieldName + " with slash: " + paddedNumber);
+        logger.debug("Drawing {} with slash: {}", fieldName, paddedNumber);
         
         // Draw first 3 digits (before slash)
         for (int i = 0; i < 3; i++) {
@@ -100,18 +102,11 @@ public class NumberBoxRenderer {
         
         // Draw slash in the middle
         float slashX = startX + (3 * (BOX_WIDTH + GAP)) + 2;
-        float slashY = startY + BOX_HEIGHT / 2 - 2;
-        
-        canvas.beginText();
-        canvas.setFontAndSize(baseFont, 14);
-        canvas.setColorFill(BaseColor.BLACK);
-        canvas.setTextMatrix(slashX, slashY);
-        canvas.showText("/");
-        canvas.endText();
+        drawSlash(canvas, baseFont, slashX, startY);
         
         // Draw last 3 digits (after slash)
         for (int i = 3; i < 6; i++) {
-            float x = startX + (i * (BOX_WIDTH + GAP)) + slashWidth;
+            float x = startX + (i * (BOX_WIDTH + GAP)) + CODE_SLASH_WIDTH;
             float y = startY;
             
             drawSingleBoxWithNumber(canvas, baseFont, String.valueOf(digits[i]), x, y);
@@ -121,20 +116,14 @@ public class NumberBoxRenderer {
     /**
      * Draw date in format YYYY-MM-DD with boxes and slashes
      */
-    public void drawDateInBoxes(PdfStamper stamper, String date, 
+    public void drawDateInBoxes(PdfContentByte canvas, BaseFont baseFont, String date, 
                                float startX, float startY, String fieldName) throws Exception {
-        PdfContentByte canvas = stamper.getOverContent(1);
-        
-        float slashWidth = 8f;
-        
-        BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
-        
-        System.out.println("📅 Drawing " + fieldName + ": " + date);
+        logger.debug("Drawing {}: {}", fieldName, date);
         
         // Parse date (assuming format: YYYY-MM-DD)
         String[] dateParts = date.split("-");
         if (dateParts.length != 3) {
-            System.out.println("❌ Invalid date format: " + date);
+            logger.warn("Invalid date format for {}: {}", fieldName, date);
             return;
         }
         
@@ -151,14 +140,9 @@ public class NumberBoxRenderer {
         }
         
         // Draw first slash
-        canvas.beginText();
-        canvas.setFontAndSize(baseFont, 14);
-        canvas.setColorFill(BaseColor.BLACK);
-        canvas.setTextMatrix(currentX + 2, startY + BOX_HEIGHT / 2 - 2);
-        canvas.showText("/");
-        canvas.endText();
+        drawSlash(canvas, baseFont, currentX + 2, startY);
         
-        currentX += slashWidth;
+        currentX += DATE_SLASH_WIDTH;
         
         // Draw MONTH (2 digits)
         for (int i = 0; i < 2; i++) {
@@ -167,14 +151,9 @@ public class NumberBoxRenderer {
         }
         
         // Draw second slash
-        canvas.beginText();
-        canvas.setFontAndSize(baseFont, 14);
-        canvas.setColorFill(BaseColor.BLACK);
-        canvas.setTextMatrix(currentX + 2, startY + BOX_HEIGHT / 2 - 2);
-        canvas.showText("/");
-        canvas.endText();
+        drawSlash(canvas, baseFont, currentX + 2, startY);
         
-        currentX += slashWidth;
+        currentX += DATE_SLASH_WIDTH;
         
         // Draw DAY (2 digits)
         for (int i = 0; i < 2; i++) {
@@ -188,43 +167,143 @@ public class NumberBoxRenderer {
      */
     private void drawSingleBoxWithNumber(PdfContentByte canvas, BaseFont baseFont, 
                                        String digit, float x, float y) throws Exception {
-        // Draw filled white rectangle
+        drawEmptyBox(canvas, x, y, LINE_THICKNESS);
+        drawDigits(canvas, baseFont, digit, new float[] {x}, y);
+    }
+
+    // ---- Box grids: geometry that does not depend on the employee ----
+
+    /**
+     * Box count of a field whose geometry is fixed by its type, or -1 when it comes
+     * from the layout (plain box rows and salary boxes).
+     */
+    static int fixedBoxCount(LayoutSpec.Type type) {
+        return switch (type) {
+            case CODE_WITH_SLASH -> CODE_DIGITS;
+            case DATE_BOXES -> DATE_DIGITS;
+            default -> -1;
+        };
+    }
+
+    /**
+     * Left edges of the boxes of a field, in the order its digits fill them.
+     * Matches the spacing of the draw methods above.
+     */
+    public static float[] boxPositions(LayoutSpec.Type type, float startX, int boxCount) {
+        float[] positions = new float[boxCount];
+        for (int i = 0; i < boxCount; i++) {
+            float x = startX + i * (BOX_WIDTH + GAP);
+            if (type == LayoutSpec.Type.CODE_WITH_SLASH && i >= 3) {
+                x += CODE_SLASH_WIDTH;
+            } else if (type == LayoutSpec.Type.DATE_BOXES && i >= 4) {
+                x += i >= 6 ? 2 * DATE_SLASH_WIDTH : DATE_SLASH_WIDTH;
+            }
+            positions[i] = x;
+        }
+        return positions;
+    }
+
+    /** Left edges of the separator slashes of a field; none for plain box rows */
+    static float[] slashPositions(LayoutSpec.Type type, float startX) {
+        return switch (type) {
+            case CODE_WITH_SLASH -> new float[] {startX + 3 * (BOX_WIDTH + GAP) + 2};
+            case DATE_BOXES -> new float[] {
+                    startX + 4 * (BOX_WIDTH + GAP) + 2,
+                    startX + 6 * (BOX_WIDTH + GAP) + DATE_SLASH_WIDTH + 2};
+            default -> new float[0];
+        };
+    }
+
+    /** White box with a black border, no digit */
+    static void drawEmptyBox(PdfContentByte canvas, float x, float y, float lineThickness) {
         canvas.setColorFill(BaseColor.WHITE);
         canvas.rectangle(x, y, BOX_WIDTH, BOX_HEIGHT);
         canvas.fill();
-        
-        // Draw black border
+
         canvas.setColorStroke(BaseColor.BLACK);
-        canvas.setLineWidth(LINE_THICKNESS);
+        canvas.setLineWidth(lineThickness);
         canvas.rectangle(x, y, BOX_WIDTH, BOX_HEIGHT);
         canvas.stroke();
-        
-        // Draw the digit
+    }
+
+    static void drawSlash(PdfContentByte canvas, BaseFont baseFont, float x, float boxY) {
+        canvas.beginText();
+        canvas.setFontAndSize(baseFont, SLASH_FONT_SIZE);
+        canvas.setColorFill(BaseColor.BLACK);
+        canvas.setTextMatrix(x, boxY + BOX_HEIGHT / 2 - 2);
+        canvas.showText("/");
+        canvas.endText();
+    }
+
+    /**
+     * Center each digit in the box starting at the matching position, in a single
+     * text object. Extra digits beyond the positions are ignored.
+     */
+    static void drawDigits(PdfContentByte canvas, BaseFont baseFont, CharSequence digits, float[] boxX, float boxY) {
+        int count = Math.min(digits.length(), boxX.length);
+        if (count == 0) {
+            return;
+        }
         canvas.beginText();
         canvas.setFontAndSize(baseFont, FONT_SIZE);
         canvas.setColorFill(BaseColor.BLACK);
-        
-        float textWidth = baseFont.getWidthPoint(digit, FONT_SIZE);
-        float textX = x + (BOX_WIDTH - textWidth) / 2;
-        float textY = y + (BOX_HEIGHT - FONT_SIZE) / 2 + 3;
-        
-        canvas.setTextMatrix(textX, textY);
-        canvas.showText(digit);
+        float textY = boxY + (BOX_HEIGHT - FONT_SIZE) / 2 + 3;
+        for (int i = 0; i < count; i++) {
+            String digit = String.valueOf(digits.charAt(i));
+            float textWidth = baseFont.getWidthPoint(digit, FONT_SIZE);
+            canvas.setTextMatrix(boxX[i] + (BOX_WIDTH - textWidth) / 2, textY);
+            canvas.showText(digit);
+        }
         canvas.endText();
     }
 
     /**
-     * Draw salary amounts with exactly 7 boxes
+     * Draw only the digits of a field whose empty boxes are already on the page as
+     * part of a box grid. A plain box row longer than its grid gets the missing boxes
+     * drawn here, so no digit is lost when a number is longer than the layout expects.
      */
-    public void drawSalaryInBoxes(PdfStamper stamper, String salary, 
-                                 float startX, float startY, String fieldName) throws Exception {
-        PdfContentByte canvas = stamper.getOverContent(1);
-        
-        int totalBoxes = 7;
-        
-        BaseFont baseFont = BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+    public void drawDigitsInGrid(PdfContentByte canvas, BaseFont baseFont, LayoutSpec.Type type, String value,
+                                 float[] boxX, float y, float lineThickness, String fieldName) {
+        String digits = switch (type) {
+            case SALARY_BOXES -> value.contains(".") ? value.substring(0, value.indexOf('.')) : value;
+            case CODE_WITH_SLASH -> String.format("%06d", Integer.parseInt(value));
+            case DATE_BOXES -> dateDigits(value);
+            default -> value;
+        };
+        if (digits == null) {
+            logger.warn("Invalid date format for {}: {}", fieldName, value);
+            return;
+        }
+
+        drawDigits(canvas, baseFont, digits, boxX, y);
+
+        if (type == LayoutSpec.Type.BOXES && digits.length() > boxX.length) {
+            float[] extra = new float[digits.length() - boxX.length];
+            for (int i = 0; i < extra.length; i++) {
+                extra[i] = boxX[0] + (boxX.length + i) * (BOX_WIDTH + GAP);
+                drawEmptyBox(canvas, extra[i], y, lineThickness);
+            }
+            drawDigits(canvas, baseFont, digits.substring(boxX.length), extra, y);
+            logger.warn("{} has {} digits for {} boxes", fieldName, digits.length(), boxX.length);
+        }
+    }
+
+    /** YYYY-MM-DD as eight digits, or null when the value is not in that form */
+    private static String dateDigits(String date) {
+        String[] parts = date.split("-");
+        if (parts.length != 3 || parts[0].length() != 4 || parts[1].length() != 2 || parts[2].length() != 2) {
+            return null;
+        }
+        return parts[0] + parts[1] + parts[2];
+    }
+
+    /**
+     * Draw salary amounts in a fixed number of boxes (7 on the insurance form)
+     */
+    public void drawSalaryInBoxes(PdfContentByte canvas, BaseFont baseFont, String salary, 
+                                 float startX, float startY, String fieldName, int totalBoxes) throws Exception {
         
-        System.out.println("💰 Drawing " + fieldName + ": " + salary + " (always " + totalBoxes + " boxes)");
+        logger.debug("Drawing {}: {} in {} boxes", fieldName, salary, totalBoxes);
         
         // Handle decimal numbers
         String cleanSalary = salary;
@@ -263,121 +342,22 @@ public class NumberBoxRenderer {
                 canvas.setTextMatrix(textX, textY);
                 canvas.showText(digit);
                 canvas.endText();
-                
-                System.out.println("   Box " + (i+1) + ": '" + digit + "'");
-            } else {
-                System.out.println("   Box " + (i+1) + ": EMPTY");
             }
         }
     }
 
-    /**
-     * Draw all Arabic text fields with precise coordinates on FIRST PAGE
-     */
-    public void drawAllArabicText(PdfStamper stamper, EmployeeData employeeData) throws Exception {
-        System.out.println("=== Drawing Arabic Text Fields on Page 1 ===");
-        
-        PdfContentByte canvas = stamper.getOverContent(1);
-        BaseFont arabicFont = arabicFontService.getArabicBaseFont();
-        
-        if (arabicFont == null) {
-            System.err.println("❌ CRITICAL: Arabic font is null! Cannot draw Arabic text.");
-            return;
-        }
-        
-        // Company Name in Arabic - FIRST PAGE
-        if (employeeData.getCompanyNameInArabic() != null && !employeeData.getCompanyNameInArabic().isEmpty()) {
-            drawArabicTextAtPosition(canvas, arabicFont, employeeData.getCompanyNameInArabic(), 
-                                   480f, 650f, 14f, "companyNameInArabic - Page 1");
-        }   
-        
-        // Employee Name in Arabic
-        if (employeeData.getEmployeeNameInArabic() != null && !employeeData.getEmployeeNameInArabic().isEmpty()) {
-            drawArabicTextAtPosition(canvas, arabicFont, employeeData.getEmployeeNameInArabic(), 
-                                    410f, 525f, 14f, "employeeNameInArabic");
-        }
-    
-        // Title in Arabic
-        if (employeeData.getTitleInArabic() != null && !employeeData.getTitleInArabic().isEmpty()) {
-            drawArabicTextAtPosition(canvas, arabicFont, employeeData.getTitleInArabic(), 
-                                   80f, 495f , 12f, "TitleArabic");
-        }
-        
-        // Education in Arabic
-        if (employeeData.getEducationInArabic() != null && !employeeData.getEducationInArabic().isEmpty()) {
-            drawArabicTextAtPosition(canvas, arabicFont, employeeData.getEducationInArabic(), 
-                                     485f, 495f, 13f, "educationInArabic");
-        }
-        
-        // Address in Arabic
-        if (employeeData.getAddressInArabic() != null && !employeeData.getAddressInArabic().isEmpty()) {
-            drawArabicTextAtPosition(canvas, arabicFont, employeeData.getAddressInArabic(), 
-                                    100f, 620f, 12f, "addressArabic");
-        }
-
-        // Company Tax Number
-        if (employeeData.getCompanyTaxNumber() != null && !employeeData.getCompanyTaxNumber().isEmpty()) {
-            drawArabicTextAtPosition(canvas, arabicFont, employeeData.getCompanyTaxNumber(), 
-                                    60f, 650f, 11f, "companyTaxNumber");
-        }
-        
-        System.out.println("=== Arabic Text Drawing Completed for Page 1 ===");
-    }
-
-    /**
-     * Draw Arabic text on SECOND page (for duplication)
-     */
-    public void drawArabicTextOnSecondPage(PdfStamper stamper, EmployeeData employeeData) throws Exception {
-        System.out.println("=== Drawing Arabic Text Fields on Page 2 ===");
-        
-        // Check if PDF has at least 2 pages
-        int totalPages = stamper.getReader().getNumberOfPages();
-        if (totalPages < 2) {
-            System.out.println("⚠️ PDF has only " + totalPages + " page(s). Cannot draw on page 2.");
-            return;
-        }
-        
-        PdfContentByte canvas = stamper.getOverContent(2); // Use page 2
-        BaseFont arabicFont = arabicFontService.getArabicBaseFont();
-        
-        if (arabicFont == null) {
-            System.err.println("❌ CRITICAL: Arabic font is null! Cannot draw Arabic text on page 2.");
-            return;
-        }
-        
-        // Company Name in Arabic - SECOND PAGE (duplicated)
-        if (employeeData.getCompanyNameInArabic() != null && !employeeData.getCompanyNameInArabic().isEmpty()) {
-            drawArabicTextAtPosition(canvas, arabicFont, employeeData.getCompanyNameInArabic(), 
-                                   480f, 650f, 14f, "companyNameInArabic - Page 2");
-        }
-        
-        // You can add other fields that need to be duplicated on page 2 here
-        // For example, if you need company tax number on the second page:
-        if (employeeData.getCompanyTaxNumber() != null && !employeeData.getCompanyTaxNumber().isEmpty()) {
-            drawArabicTextAtPosition(canvas, arabicFont, employeeData.getCompanyTaxNumber(), 
-                                    60f, 650f, 11f, "companyTaxNumber - Page 2");
-        }
-        
-        System.out.println("=== Arabic Text Drawing Completed for Page 2 ===");
-    }
-
     /**
      * Draw Arabic text at specific position with proper shaping
      */
-    private void drawArabicTextAtPosition(PdfContentByte canvas, BaseFont arabicFont, 
+    public void drawArabicTextAtPosition(PdfContentByte canvas, BaseFont arabicFont, 
                                          String arabicText, float x, float y, 
                                          float fontSize, String fieldName) {
         try {
-            System.out.println("📝 Drawing " + fieldName + ":");
-            System.out.println("   Original text: '" + arabicText + "'");
+            logger.debug("Drawing {}: '{}' at [{}, {}] size {}", fieldName, arabicText, x, y, fontSize);
             
             // CRITICAL: Shape the text using ICU4J
             String shapedText = arabicFontService.shapeArabicText(arabicText);
             
-            System.out.println("   Shaped text length: " + shapedText.length());
-            System.out.println("   Position: [" + x + ", " + y + "]");
-            System.out.println("   Font size: " + fontSize);
-            
             // Draw the shaped text
             canvas.saveState();
             canvas.beginText();
@@ -388,11 +368,8 @@ public class NumberBoxRenderer {
             canvas.endText();
             canvas.restoreState();
             
-            System.out.println("✅ Successfully drew Arabic text for: " + fieldName);
-            
         } catch (Exception e) {
-            System.err.println("❌ Error drawing Arabic text for " + fieldName + ": " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error drawing Arabic text for {}: {}", fieldName, e.getMessage(), e);
             
             // Draw error indicator
             try {
@@ -417,7 +394,7 @@ public class NumberBoxRenderer {
         BaseFont arabicFont = arabicFontService.getArabicBaseFont();
         
         if (arabicFont == null) {
-            System.err.println("❌ Arabic font is null for: " + fieldName);
+            logger.error("Arabic font is null for {}", fieldName);
             return;
         }
         
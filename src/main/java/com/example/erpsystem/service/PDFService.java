@@ -1,229 +1,154 @@
 package com.example.erpsystem.service;
 
 import com.itextpdf.text.BaseColor;
-import com.itextpdf.text.pdf.AcroFields;
+import com.itextpdf.text.DocumentException;
 import com.itextpdf.text.pdf.BaseFont;
 import com.itextpdf.text.pdf.PdfContentByte;
 import com.itextpdf.text.pdf.PdfReader;
 import com.itextpdf.text.pdf.PdfStamper;
 import com.example.erpsystem.dto.EmployeeData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.core.io.ClassPathResource;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 
 @Service
 public class PDFService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PDFService.class);
+
+    private static final int CHANNEL_BUFFER_SIZE = 64 * 1024;
+
+    // Heap reserved per render, in template sizes: a render allocates about 12x the template,
+    // but a third of that is garbage before the rest is allocated, so about 8x is live at once
+    private static final int FORM_FOOTPRINT_FACTOR = 8;
+
+    private final NumberBoxRenderer numberBoxRenderer;
+    private final PdfTemplateRegistry templateRegistry;
+    private final ArabicFontService arabicFontService;
+    private final FontRegistry fontRegistry;
+    private final PdfMetrics pdfMetrics;
+    private final DocumentMemoryBudget memoryBudget;
+
     @Autowired
-    private NumberBoxRenderer numberBoxRenderer;
+    public PDFService(NumberBoxRenderer numberBoxRenderer, PdfTemplateRegistry templateRegistry,
+                      ArabicFontService arabicFontService, FontRegistry fontRegistry, PdfMetrics pdfMetrics,
+                      DocumentMemoryBudget memoryBudget) {
+        this.numberBoxRenderer = numberBoxRenderer;
+        this.templateRegistry = templateRegistry;
+        this.arabicFontService = arabicFontService;
+        this.fontRegistry = fontRegistry;
+        this.pdfMetrics = pdfMetrics;
+        this.memoryBudget = memoryBudget;
+    }
 
     public byte[] fillInsuranceForm(EmployeeData employeeData) throws Exception {
-        System.out.println("=== Starting PDF Generation ===");
-
-        verifyArabicFont();
-        
-        // Load PDF template
-        ClassPathResource templateResource = new ClassPathResource("templates/insurance1.pdf");
-        
-        System.out.println("Loading PDF template from: templates/insurance1.pdf");
-        System.out.println("Template exists: " + templateResource.exists());
-        
-        if (!templateResource.exists()) {
-            System.out.println("ERROR: PDF template not found!");
-            throw new Exception("PDF template not found: templates/insurance1.pdf");
-        }
-        
-        PdfReader reader = new PdfReader(templateResource.getInputStream());
-        System.out.println("PDF reader created successfully");
-        
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PdfStamper stamper = new PdfStamper(reader, baos);
-        
-        AcroFields form = stamper.getAcroFields();
-        
-        // Log available fields for debugging
-        Set<String> fields = form.getFields().keySet();
-        System.out.println("Available PDF form fields: " + fields);
-        
-        // Fill form fields
-        Map<String, String> fieldValues = prepareFieldValues(employeeData);
-        
-        for (Map.Entry<String, String> entry : fieldValues.entrySet()) {
-            if (shouldSkipField(entry.getKey())) {
-                System.out.println("🚫 SKIPPING field '" + entry.getKey() + "' - will be replaced with boxes");
-                continue;
-            }
-            
-            if (form.getField(entry.getKey()) != null) {
-                System.out.println("✅ FILLING field '" + entry.getKey() + "' with value: '" + entry.getValue() + "'");
-                form.setField(entry.getKey(), entry.getValue());
-            } else {
-                System.out.println("⚠️ WARNING: Field '" + entry.getKey() + "' not found in PDF template");
-            }
-        }
-        
-        // Add number boxes
-        addNumberBoxes(stamper, employeeData);
-        
-        // ✅ CRITICAL: Add Arabic text directly to PDF
-        addArabicText(stamper, employeeData);
-        
-        stamper.setFormFlattening(true);
-        stamper.close();
-        reader.close();
-        
-        System.out.println("PDF generated successfully with " + baos.size() + " bytes");
-        System.out.println("=== PDF Generation Completed ===");
-        
-        return baos.toByteArray();
+        return fillInsuranceForm(employeeData, false);
     }
-    
+
     /**
-     * Determine which fields to skip (they will be replaced with boxes)
+     * Fill the insurance form. With embedFullFonts the Arabic font is embedded whole
+     * rather than subset, which makes every copy byte-identical so a merged batch
+     * stores it only once.
      */
-    private boolean shouldSkipField(String fieldName) {
-        return fieldName.equals("nationalId") || 
-               fieldName.equals("insuranceNumber") || 
-               fieldName.equals("CompanyInsuranceNumber") ||
-               fieldName.equals("companyInsuranceNumber") ||
-               fieldName.equals("basicSalaryInEnglish") ||
-               fieldName.equals("ContributionSalary") ||
-               fieldName.equals("TitleCode") ||
-               fieldName.equals("startDate");
+    public byte[] fillInsuranceForm(EmployeeData employeeData, boolean embedFullFonts) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(
+                templateRegistry.getInsuranceTemplate().getSize() + 32 * 1024);
+        writeInsuranceForm(employeeData, baos, embedFullFonts);
+        return baos.toByteArray();
     }
-    
+
+    public void writeInsuranceForm(EmployeeData employeeData, OutputStream out) throws IOException, DocumentException {
+        writeInsuranceForm(employeeData, out, false);
+    }
+
     /**
-     * Add number boxes for all numeric fields
+     * Fill the insurance form and write it straight to the given stream, without
+     * holding the finished PDF in memory. The stream is flushed but left open.
+     * The render first reserves its estimated heap footprint from the
+     * {@link DocumentMemoryBudget}, which may make it wait or reject it with a
+     * {@link DocumentBudgetExceededException}.
      */
-    private void addNumberBoxes(PdfStamper stamper, EmployeeData employeeData) {
-        try {
-            System.out.println("=== Adding Number Boxes ===");
-            System.out.println("Employee Data: " + employeeData.getEmployeeNameInEnglish());
-        
-            // National ID (14 digits)
-            if (employeeData.getNationalId() != null && !employeeData.getNationalId().isEmpty()) {
-                System.out.println("Drawing nationalId in boxes: " + employeeData.getNationalId());
-                numberBoxRenderer.drawProfessionalBoxes(stamper, employeeData.getNationalId(), 275f, 550f, "nationalId", 0.6f);
-            }
-            
-            // Insurance Number (7 digits)
-            if (employeeData.getInsuranceNumber() != null && !employeeData.getInsuranceNumber().isEmpty()) {
-                System.out.println("Drawing insuranceNumber in boxes: " + employeeData.getInsuranceNumber());
-                numberBoxRenderer.drawProfessionalBoxes(stamper, employeeData.getInsuranceNumber(), 365f, 575f, "insuranceNumber", 0.6f);
-            }
-            
-            // Company Insurance Number (6 digits)
-            if (employeeData.getCompanyInsuranceNumber() != null && !employeeData.getCompanyInsuranceNumber().isEmpty()) {
-                System.out.println("Drawing companyInsuranceNumber in boxes: " + employeeData.getCompanyInsuranceNumber());
-                numberBoxRenderer.drawProfessionalBoxes(stamper, employeeData.getCompanyInsuranceNumber(), 400f, 665f, "companyInsuranceNumber", 0.6f);
-            }
+    public void writeInsuranceForm(EmployeeData employeeData, OutputStream out, boolean embedFullFonts)
+            throws IOException, DocumentException {
+        logger.debug("Generating insurance form for employee {}", employeeData.getId());
+        verifyArabicFont();
 
-            // Company Insurance Number (6 digits)
-            if (employeeData.getCompanyInsuranceNumber() != null && !employeeData.getCompanyInsuranceNumber().isEmpty()) {
-                System.out.println("Drawing companyInsuranceNumber in boxes: " + employeeData.getCompanyInsuranceNumber());
-                numberBoxRenderer.drawProfessionalBoxes(stamper, employeeData.getCompanyInsuranceNumber(), 400f, 665f, "companyInsuranceNumber", 0.6f);
-            }
-           
-            // Basic Salary (numeric) - 7 boxes always
-            if (employeeData.getBasicSalaryInEnglish() != null && !employeeData.getBasicSalaryInEnglish().isEmpty()) {
-                System.out.println("Drawing basicSalary in boxes: " + employeeData.getBasicSalaryInEnglish());
-                numberBoxRenderer.drawSalaryInBoxes(stamper, employeeData.getBasicSalaryInEnglish(), 5f, 387f, "basicSalary");
-            }
-            
-            // Contribution Salary (numeric) - 7 boxes always
-            if (employeeData.getContributionSalary() != null && !employeeData.getContributionSalary().isEmpty()) {
-                System.out.println("Drawing contributionSalary in boxes: " + employeeData.getContributionSalary());
-                numberBoxRenderer.drawSalaryInBoxes(stamper, employeeData.getContributionSalary(), 191.5f, 387.5f, "contributionSalary");
-            }
-            
-            // Title Code with slash (6 digits with / in middle)
-            if (employeeData.getJobTitleCode() != null && !employeeData.getJobTitleCode().isEmpty()) {
-                System.out.println("Drawing TitleCode with slash: " + employeeData.getJobTitleCode());
-                numberBoxRenderer.drawNumberWithSlashSeparator(stamper, employeeData.getJobTitleCode(), 246f, 492f, "TitleCode");
-            }
-            
-            // Start Date with slashes (YYYY-MM-DD format)
-            if (employeeData.getStartDate() != null && !employeeData.getStartDate().isEmpty()) {
-                System.out.println("Drawing startDate in boxes: " + employeeData.getStartDate());
-                numberBoxRenderer.drawDateInBoxes(stamper, employeeData.getStartDate(), 300f, 462f, "startDate");
+        // Template bytes and field names are cached by the registry
+        PdfTemplateRegistry.Template template = templateRegistry.getInsuranceTemplate();
+        PdfMetrics.Sample sample = pdfMetrics.start(template.getName());
+        CountingOutputStream counted = new CountingOutputStream(out);
+        PdfReader reader = null;
+        try (DocumentMemoryBudget.Reservation reservation =
+                     memoryBudget.reserve((long) template.getSize() * FORM_FOOTPRINT_FACTOR)) {
+            long stageStart = System.nanoTime();
+            reader = template.newReader();
+            PdfStamper stamper = new PdfStamper(reader, counted);
+            stamper.getWriter().setCloseStream(false);
+            stageStart = sample.lap(PdfMetrics.Stage.TEMPLATE, stageStart);
+
+            // Form fields, number boxes and Arabic text all come from the compiled layout
+            RenderPlan plan = template.getRenderPlan();
+            plan.render(stamper, employeeData, resolveFonts(plan, embedFullFonts), numberBoxRenderer, sample);
+
+            stageStart = System.nanoTime();
+            stamper.setFormFlattening(true);
+            stamper.close();
+            sample.lap(PdfMetrics.Stage.CLOSE, stageStart);
+
+            sample.success(counted.count, reader.getNumberOfPages());
+        } catch (IOException | DocumentException | RuntimeException e) {
+            sample.failure(e);
+            throw e;
+        } finally {
+            if (reader != null) {
+                reader.close();
             }
-            
-            System.out.println("=== Number Boxes Addition Completed ===");
-            
-        } catch (Exception e) {
-            System.err.println("Error adding number boxes: " + e.getMessage());
-            e.printStackTrace();
         }
     }
-    
+
     /**
-     * Add Arabic text directly to PDF using coordinates
+     * Channel variant for archive and file targets. Writes go through a buffer since
+     * the PDF writer emits many small chunks; the channel is left open.
      */
-    private void addArabicText(PdfStamper stamper, EmployeeData employeeData) {
-        try {
-            System.out.println("=== Adding Arabic Text Directly to PDF ===");
-            
-            // Draw all Arabic text fields
-            numberBoxRenderer.drawAllArabicText(stamper, employeeData);
-            
-            System.out.println("=== Arabic Text Addition Completed ===");
-            
-            
-            // Draw duplicated Arabic text on second page
-            numberBoxRenderer.drawArabicTextOnSecondPage(stamper, employeeData);
-
-        } catch (Exception e) {
-            System.err.println("Error adding Arabic text: " + e.getMessage());
-            e.printStackTrace();
-        }
+    public void writeInsuranceForm(EmployeeData employeeData, WritableByteChannel channel, boolean embedFullFonts)
+            throws IOException, DocumentException {
+        OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), CHANNEL_BUFFER_SIZE);
+        writeInsuranceForm(employeeData, out, embedFullFonts);
+        out.flush();
     }
     
-   /**
- * Prepare field values - EXCLUDE ARABIC TEXT FIELDS (they will be drawn directly)
- */
-private Map<String, String> prepareFieldValues(EmployeeData employeeData) {
-    Map<String, String> fieldValues = new HashMap<>();
-    
-    // English fields only (Arabic fields will be drawn directly)
-    fieldValues.put("Title", getValueOrEmpty(employeeData.getTitleInEnglish()));
-    fieldValues.put("address", getValueOrEmpty(employeeData.getAddressInEnglish()));
-    fieldValues.put("endDate", getValueOrEmpty(employeeData.getEndDate()));
-    
-    // DO NOT include Arabic fields here - they will be drawn directly via canvas
-    
-    // Numeric fields (will be replaced with boxes)
-    fieldValues.put("nationalId", getValueOrEmpty(employeeData.getNationalId()));
-    fieldValues.put("insuranceNumber", getValueOrEmpty(employeeData.getInsuranceNumber()));
-    fieldValues.put("CompanyInsuranceNumber", getValueOrEmpty(employeeData.getCompanyInsuranceNumber()));
-    fieldValues.put("companyInsuranceNumber", getValueOrEmpty(employeeData.getCompanyInsuranceNumber()));
-    fieldValues.put("basicSalaryInEnglish", getValueOrEmpty(employeeData.getBasicSalaryInEnglish()));
-    fieldValues.put("ContributionSalary", getValueOrEmpty(employeeData.getContributionSalary()));
-    fieldValues.put("TitleCode", getValueOrEmpty(employeeData.getJobTitleCode()));
-    fieldValues.put("startDate", getValueOrEmpty(employeeData.getStartDate()));
-    
-    System.out.println("📝 Prepared field values for PDF (Arabic fields excluded): " + fieldValues);
-    return fieldValues;
-}
-    
-    private String getValueOrEmpty(String value) {
-        return value != null ? value : "";
+    /**
+     * Fonts for the plan's font slots. With embedFullFonts the non-subset variant is
+     * used wherever one is registered.
+     */
+    private BaseFont[] resolveFonts(RenderPlan plan, boolean embedFullFonts) {
+        String[] keys = plan.getFontKeys();
+        BaseFont[] fonts = new BaseFont[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            fonts[i] = fontRegistry.get(keys[i], embedFullFonts);
+        }
+        return fonts;
     }
 
     /**
      * Helper method to generate a PDF with coordinate grid for testing
      */
     public byte[] generateTestPDFWithGrid() throws Exception {
-        ClassPathResource templateResource = new ClassPathResource("templates/insurance1.pdf");
-        PdfReader reader = new PdfReader(templateResource.getInputStream());
+        PdfReader reader = templateRegistry.getInsuranceTemplate().newReader();
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         PdfStamper stamper = new PdfStamper(reader, baos);
         
         PdfContentByte canvas = stamper.getOverContent(1);
+        BaseFont labelFont = fontRegistry.getStandardFont(FontRegistry.HELVETICA);
         
         // Draw coordinate grid
         canvas.setColorStroke(BaseColor.RED);
@@ -237,7 +162,7 @@ private Map<String, String> prepareFieldValues(EmployeeData employeeData) {
             
             // Add Y coordinate labels
             canvas.beginText();
-            canvas.setFontAndSize(BaseFont.createFont(BaseFont.HELVETICA, BaseFont.WINANSI, BaseFont.EMBEDDED), 8);
+            canvas.setFontAndSize(labelFont, 8);
             canvas.setColorFill(BaseColor.RED);
             canvas.setTextMatrix(5, y + 2);
             canvas.showText("Y=" + y);
@@ -252,7 +177,7 @@ private Map<String, String> prepareFieldValues(EmployeeData employeeData) {
             
             // Add X coordinate labels
             canvas.beginText();
-            canvas.setFontAndSize(BaseFont.createFont(BaseFont.HELVETICA, BaseFont.WINANSI, BaseFont.EMBEDDED), 8);
+            canvas.setFontAndSize(labelFont, 8);
             canvas.setColorFill(BaseColor.RED);
             canvas.setTextMatrix(x + 2, 10);
             canvas.showText("X=" + x);
@@ -269,22 +194,32 @@ private Map<String, String> prepareFieldValues(EmployeeData employeeData) {
  * Verify Arabic font is properly loaded before generating PDF
  */
 private void verifyArabicFont() {
-    try {
-        // Direct access to ArabicFontService
-        if (numberBoxRenderer != null) {
-            java.lang.reflect.Field fontServiceField = numberBoxRenderer.getClass().getDeclaredField("arabicFontService");
-            fontServiceField.setAccessible(true);
-            ArabicFontService fontService = (ArabicFontService) fontServiceField.get(numberBoxRenderer);
-            
-            if (fontService.isArabicFontLoaded()) {
-                System.out.println("✅ Arabic font verification: PASSED");
-                System.out.println("✅ Font encoding: " + fontService.getArabicBaseFont().getEncoding());
-            } else {
-                System.err.println("❌ Arabic font verification: FAILED - Arabic text will not display correctly");
-            }
-        }
-    } catch (Exception e) {
-        System.err.println("⚠️ Could not verify Arabic font: " + e.getMessage());
+    if (!arabicFontService.isArabicFontLoaded()) {
+        logger.error("Arabic font verification failed - Arabic text will not display correctly");
     }
 }
+
+    /**
+     * Counts the bytes of the rendered document on their way to the caller's stream.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
 }
\ No newline at end of file
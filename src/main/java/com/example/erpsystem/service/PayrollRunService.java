@@ -0,0 +1,419 @@
+package com.example.erpsystem.service;
+
+import com.example.erpsystem.dto.PayrollRunReport;
+import com.example.erpsystem.model.Employee;
+import com.example.erpsystem.model.SalaryEntity;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Monthly payroll for every employee whose contract covers the month. Employees are
+ * read from a forward-only cursor and handed out {@value #CHUNK_SIZE} at a time to a
+ * worker pool; a worker calculates its chunk through {@link SalaryCalculationService}
+ * and inserts it in JDBC batches in a transaction of its own. At most two chunks per
+ * worker are in flight, so memory use does not grow with the payroll.
+ * <p>
+ * The gross salary is the basic salary plus the variable salary, and the salary is
+ * dated the last day of the month. Employees that already have a salary for the month
+ * are skipped, so a run can be repeated once the reported failures are fixed.
+ */
+@Service
+public class PayrollRunService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PayrollRunService.class);
+
+    // Rows per insert statement batch, equal to the salary id sequence allocation size
+    private static final int BATCH_SIZE = 50;
+    // Salaries per transaction; a failed chunk is retried row by row to find the bad rows
+    private static final int CHUNK_SIZE = 500;
+    // Rows per cursor round trip
+    private static final int FETCH_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final SessionFactory sessionFactory;
+    private final SalaryCalculationService salaryCalculationService;
+    private final ExecutorService executor;
+    private final int workers;
+
+    /**
+     * @param workers worker threads, each holding a database connection while it writes;
+     *                0 means one per processor. Either way at most the connection pool
+     *                size minus one, the connection the run reads employees through.
+     */
+    @Autowired
+    public PayrollRunService(EntityManagerFactory entityManagerFactory,
+                             SalaryCalculationService salaryCalculationService,
+                             DataSource dataSource,
+                             @Value("${erp.payroll.workers:0}") int workers) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.salaryCalculationService = salaryCalculationService;
+        int requested = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        int poolSize = maximumPoolSize(dataSource);
+        this.workers = poolSize > 0 ? Math.max(1, Math.min(requested, poolSize - 1)) : requested;
+        if (this.workers < requested) {
+            logger.info("Payroll runs use {} workers instead of {}: the connection pool holds {} connections",
+                    this.workers, requested, poolSize);
+        }
+        this.executor = Executors.newFixedThreadPool(this.workers, namedThreadFactory("payroll-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Calculate and save the month's salary of every active employee that has none yet.
+     *
+     * @param company     English company name, matched ignoring case; null for all companies
+     * @param employeeIds employees to pay; null or empty for all of them
+     */
+    public PayrollRunReport run(YearMonth month, String company, List<Long> employeeIds) {
+        long started = System.nanoTime();
+        EmployeeFilter filter = new EmployeeFilter(month, company,
+                employeeIds == null || employeeIds.isEmpty() ? null : employeeIds);
+        Run run = new Run(month.atEndOfMonth());
+        long alreadyPaid;
+
+        // PostgreSQL only keeps a cursor open inside a transaction; nothing is written here
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                alreadyPaid = filter.query(session, "SELECT count(e)", true, Long.class).getSingleResult();
+                try (ScrollableResults<Object[]> employees = filter
+                        .query(session, "SELECT e.id, e.basicSalary, e.variableSalaryNumber, e.contributionSalary",
+                                false, Object[].class)
+                        .setFetchSize(FETCH_SIZE)
+                        .setReadOnly(true)
+                        .scroll(ScrollMode.FORWARD_ONLY)) {
+                    while (employees.next()) {
+                        Object[] row = employees.get();
+                        run.add(new PayInput((Long) row[0], (BigDecimal) row[1], (BigDecimal) row[2], (BigDecimal) row[3]));
+                    }
+                }
+                run.finish();
+            } finally {
+                transaction.rollback();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.cancel();
+            throw new IllegalStateException("Payroll run for " + month + " was interrupted", e);
+        } catch (ExecutionException e) {
+            run.cancel();
+            throw new IllegalStateException("Payroll run for " + month + " failed", e.getCause());
+        }
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Payroll run {}: {} of {} employees saved in {} ms ({} failed, {} already paid, {} workers)",
+                month, run.saved, run.employees, elapsedMillis, run.failed, alreadyPaid, workers);
+        return new PayrollRunReport(month, company, run.employees, run.saved, alreadyPaid, run.failed, run.errors,
+                run.totals(),
+                new PayrollRunReport.Timings(elapsedMillis, run.computeNanos / 1_000_000, run.writeNanos / 1_000_000,
+                        workers));
+    }
+
+    /**
+     * Calculate one chunk and insert it. Runs on a worker thread.
+     */
+    private ChunkResult processChunk(List<PayInput> rows, LocalDate salaryDate) {
+        ChunkResult result = new ChunkResult();
+        long started = System.nanoTime();
+        List<PayInput> payable = new ArrayList<>(rows.size());
+        double[] grossSalaries = new double[rows.size()];
+        double[] contributionSalaries = new double[rows.size()];
+        for (PayInput row : rows) {
+            String problem = row.problem();
+            if (problem != null) {
+                result.errors.add(new PayrollRunReport.EmployeeError(row.employeeId(), problem));
+                continue;
+            }
+            grossSalaries[payable.size()] = row.grossSalary();
+            contributionSalaries[payable.size()] = row.contributionSalary().doubleValue();
+            payable.add(row);
+        }
+
+        // The whole chunk in one pass over primitive columns
+        SalaryColumns columns = new SalaryColumns(payable.size());
+        salaryCalculationService.calculateBatch(grossSalaries, contributionSalaries, payable.size(), columns);
+        List<PendingSalary> pending = new ArrayList<>(payable.size());
+        for (int i = 0; i < payable.size(); i++) {
+            SalaryEntity salary = new SalaryEntity();
+            salary.setGrossSalary(grossSalaries[i]);
+            salary.setContributionSalary(contributionSalaries[i]);
+            salary.setSalaryDate(Date.valueOf(salaryDate));
+            columns.copyTo(i, salary);
+            pending.add(new PendingSalary(payable.get(i).employeeId(), salary));
+        }
+        result.computeNanos = System.nanoTime() - started;
+
+        started = System.nanoTime();
+        persist(pending, result);
+        result.writeNanos = System.nanoTime() - started;
+        return result;
+    }
+
+    private void persist(List<PendingSalary> pending, ChunkResult result) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try (Session session = sessionFactory.openSession()) {
+            session.setJdbcBatchSize(BATCH_SIZE);
+            // Payroll rows are not read back by id; keep them out of the entity cache
+            session.setCacheMode(CacheMode.IGNORE);
+            Transaction transaction = session.beginTransaction();
+            try {
+                for (PendingSalary salary : pending) {
+                    // A reference is enough for the foreign key; the employee is not loaded
+                    salary.salary().setEmployee(session.getReference(Employee.class, salary.employeeId()));
+                    session.persist(salary.salary());
+                }
+                transaction.commit();
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            }
+        } catch (RuntimeException e) {
+            if (isConnectionUnavailable(e)) {
+                // Retrying row by row would wait for a connection once per row; the employees
+                // are reported and paid by the next run
+                String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                for (PendingSalary salary : pending) {
+                    result.errors.add(new PayrollRunReport.EmployeeError(salary.employeeId(), message));
+                }
+                return;
+            }
+            if (pending.size() == 1) {
+                result.errors.add(new PayrollRunReport.EmployeeError(pending.get(0).employeeId(),
+                        NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+                return;
+            }
+            // The batch rolled back as a whole; insert the salaries one by one to find the bad ones
+            for (PendingSalary salary : pending) {
+                salary.salary().setId(null);
+                persist(List.of(salary), result);
+            }
+            return;
+        }
+        for (PendingSalary salary : pending) {
+            result.saved.add(salary.salary());
+        }
+    }
+
+    private static boolean isConnectionUnavailable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Maximum size of the Hikari pool behind the data source, or 0 when it is not one
+    private static int maximumPoolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not read the connection pool size: {}", e.getMessage());
+        }
+        return 0;
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Employees whose contract covers some day of the month, split by whether a salary
+     * for the month exists. The month check is a date range on the salary index.
+     */
+    private record EmployeeFilter(YearMonth month, String company, List<Long> employeeIds) {
+
+        <T> Query<T> query(StatelessSession session, String select, boolean paid, Class<T> type) {
+            String hql = select + " FROM Employee e"
+                    + " WHERE (e.endDate IS NULL OR e.endDate >= :firstDay)"
+                    + " AND (e.startDate IS NULL OR e.startDate <= :lastDay)"
+                    + (company != null ? " AND upper(e.companyNameInEnglish) = upper(:company)" : "")
+                    + (employeeIds != null ? " AND e.id IN :employeeIds" : "")
+                    + (paid ? " AND EXISTS" : " AND NOT EXISTS")
+                    + " (SELECT 1 FROM SalaryEntity s WHERE s.employee.id = e.id"
+                    + " AND s.salaryDate BETWEEN :paidFrom AND :paidTo)"
+                    + (paid ? "" : " ORDER BY e.id");
+            Query<T> query = session.createQuery(hql, type)
+                    .setParameter("firstDay", month.atDay(1))
+                    .setParameter("lastDay", month.atEndOfMonth())
+                    .setParameter("paidFrom", Date.valueOf(month.atDay(1)))
+                    .setParameter("paidTo", Date.valueOf(month.atEndOfMonth()));
+            if (company != null) {
+                query.setParameter("company", company);
+            }
+            if (employeeIds != null) {
+                query.setParameterList("employeeIds", employeeIds);
+            }
+            return query;
+        }
+    }
+
+    private record PayInput(Long employeeId, BigDecimal basicSalary, BigDecimal variableSalary,
+                            BigDecimal contributionSalary) {
+
+        /** Why no salary can be calculated, or null */
+        String problem() {
+            if (basicSalary == null) {
+                return "No basic salary";
+            }
+            if (contributionSalary == null) {
+                return "No contribution salary";
+            }
+            return null;
+        }
+
+        double grossSalary() {
+            return variableSalary == null ? basicSalary.doubleValue() : basicSalary.add(variableSalary).doubleValue();
+        }
+    }
+
+    private record PendingSalary(Long employeeId, SalaryEntity salary) {
+    }
+
+    private static final class ChunkResult {
+        final List<SalaryEntity> saved = new ArrayList<>();
+        final List<PayrollRunReport.EmployeeError> errors = new ArrayList<>();
+        long computeNanos;
+        long writeNanos;
+    }
+
+    /**
+     * Hands chunks to the workers and adds up their results; used by the calling thread only.
+     */
+    private final class Run {
+
+        final LocalDate salaryDate;
+        final CompletionService<ChunkResult> completion = new ExecutorCompletionService<>(executor);
+        final int maxInFlight = workers * 2;
+        final List<Future<ChunkResult>> inFlight = new ArrayList<>();
+        List<PayInput> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        int employees;
+        int saved;
+        int failed;
+        final List<PayrollRunReport.EmployeeError> errors = new ArrayList<>();
+        double grossSalary;
+        double netSalary;
+        double employeeShareSocInsurance;
+        double companyShareSocInsurance;
+        double taxesBasic;
+        double martyrsFund;
+        long computeNanos;
+        long writeNanos;
+
+        Run(LocalDate salaryDate) {
+            this.salaryDate = salaryDate;
+        }
+
+        void add(PayInput input) throws InterruptedException, ExecutionException {
+            employees++;
+            chunk.add(input);
+            if (chunk.size() == CHUNK_SIZE) {
+                submitChunk();
+            }
+        }
+
+        void finish() throws InterruptedException, ExecutionException {
+            if (!chunk.isEmpty()) {
+                submitChunk();
+            }
+            while (!inFlight.isEmpty()) {
+                collect();
+            }
+        }
+
+        void cancel() {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+
+        private void submitChunk() throws InterruptedException, ExecutionException {
+            if (inFlight.size() == maxInFlight) {
+                collect();
+            }
+            List<PayInput> rows = chunk;
+            chunk = new ArrayList<>(CHUNK_SIZE);
+            inFlight.add(completion.submit(() -> processChunk(rows, salaryDate)));
+        }
+
+        private void collect() throws InterruptedException, ExecutionException {
+            Future<ChunkResult> done = completion.take();
+            inFlight.remove(done);
+            ChunkResult result = done.get();
+
+            computeNanos += result.computeNanos;
+            writeNanos += result.writeNanos;
+            failed += result.errors.size();
+            for (PayrollRunReport.EmployeeError error : result.errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(error);
+                }
+            }
+            saved += result.saved.size();
+            for (SalaryEntity salary : result.saved) {
+                grossSalary += salary.getGrossSalary();
+                netSalary += salary.getNetSalary();
+                employeeShareSocInsurance += salary.getEmployeeShareSocInsurance();
+                companyShareSocInsurance += salary.getCompanyShareSocInsurance();
+                taxesBasic += salary.getTaxesBasic();
+                martyrsFund += salary.getMartyrsFund();
+            }
+        }
+
+        PayrollRunReport.Totals totals() {
+            return new PayrollRunReport.Totals(SalaryCalculationService.round(grossSalary),
+                    SalaryCalculationService.round(netSalary),
+                    SalaryCalculationService.round(employeeShareSocInsurance),
+                    SalaryCalculationService.round(companyShareSocInsurance),
+                    SalaryCalculationService.round(taxesBasic),
+                    SalaryCalculationService.round(martyrsFund));
+        }
+    }
+}
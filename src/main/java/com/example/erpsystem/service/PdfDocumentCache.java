@@ -0,0 +1,377 @@
+package com.example.erpsystem.service;
+
+import com.example.erpsystem.dto.EmployeeData;
+import com.itextpdf.text.DocumentException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Content-addressed cache of generated PDFs. The key is a SHA-256 over the template
+ * version, the layout version and every employee value the layout reads, so a key
+ * never maps to stale output; invalidation only frees space early.
+ *
+ * Recently used documents are kept in a byte-bounded in-memory LRU, everything else
+ * in files under the cache directory. Disk hits are promoted to memory, misses are
+ * written to the caller and to disk in the same pass and kept in memory when small.
+ */
+@Component
+public class PdfDocumentCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfDocumentCache.class);
+
+    private static final String SUFFIX = ".pdf";
+
+    private final PdfTemplateRegistry templateRegistry;
+    private final Path directory;
+    private final long memoryMaxBytes;
+    private final long memoryEntryMaxBytes;
+    private final long diskMaxBytes;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+
+    private final AtomicLong diskBytes = new AtomicLong();
+    // Storing and deleting a file happen under the lock of its key, so the size check and
+    // the move or delete are one step and diskBytes counts every file once
+    private final Object[] fileLocks = new Object[64];
+    private final Map<Long, Set<String>> keysByEmployee = new ConcurrentHashMap<>();
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @Autowired
+    public PdfDocumentCache(PdfTemplateRegistry templateRegistry,
+                            @Value("${erp.pdf-cache.dir:cache/pdf}") String directory,
+                            @Value("${erp.pdf-cache.memory-max-size:64MB}") DataSize memoryMaxSize,
+                            @Value("${erp.pdf-cache.disk-max-size:1GB}") DataSize diskMaxSize) throws IOException {
+        this.templateRegistry = templateRegistry;
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.memoryMaxBytes = memoryMaxSize.toBytes();
+        // A single document may take at most an eighth of the memory tier
+        this.memoryEntryMaxBytes = memoryMaxBytes / 8;
+        this.diskMaxBytes = diskMaxSize.toBytes();
+        for (int i = 0; i < fileLocks.length; i++) {
+            fileLocks[i] = new Object();
+        }
+
+        Files.createDirectories(this.directory);
+        diskBytes.set(scanDirectory());
+        logger.info("PDF cache at {} ({} bytes on disk, memory limit {}, disk limit {})",
+                this.directory, diskBytes.get(), memoryMaxSize, diskMaxSize);
+    }
+
+    /**
+     * Writes a document to the given stream. Must not close the stream.
+     */
+    @FunctionalInterface
+    public interface DocumentWriter {
+        void write(OutputStream out) throws IOException, DocumentException;
+    }
+
+    /**
+     * Cache key of the given template rendered for this employee, as lowercase hex.
+     */
+    public String key(String templateName, EmployeeData data) {
+        PdfTemplateRegistry.Template template = templateRegistry.get(templateName);
+        MessageDigest digest = sha256();
+        digest.update(template.getName().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(template.getVersion().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(template.getRenderPlan().getVersion().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        template.getRenderPlan().updateDigest(digest, data);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Write the cached document for the key to out, rendering it with the writer on a
+     * miss. The rendered bytes go to out as they are produced and to disk at the same time.
+     */
+    public void write(String key, long employeeId, OutputStream out, DocumentWriter writer)
+            throws IOException, DocumentException {
+        byte[] cached = getFromMemory(key);
+        if (cached != null) {
+            memoryHits.increment();
+            out.write(cached);
+            return;
+        }
+
+        Path file = directory.resolve(key + SUFFIX);
+        byte[] fromDisk = readFromDisk(file);
+        if (fromDisk != null) {
+            diskHits.increment();
+            track(employeeId, key);
+            putInMemory(key, fromDisk);
+            out.write(fromDisk);
+            return;
+        }
+
+        misses.increment();
+        Path temp = Files.createTempFile(directory, key, ".tmp");
+        try {
+            try (OutputStream fileOut = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                writer.write(new TeeOutputStream(out, fileOut));
+            }
+            long size = Files.size(temp);
+            byte[] bytes = size <= memoryEntryMaxBytes ? Files.readAllBytes(temp) : null;
+            synchronized (lockFor(key)) {
+                // A concurrent miss on the same key may have stored identical bytes already
+                long previous = sizeOf(file);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                diskBytes.addAndGet(size - previous);
+            }
+            track(employeeId, key);
+            if (bytes != null) {
+                putInMemory(key, bytes);
+            }
+            if (diskBytes.get() > diskMaxBytes) {
+                evictDisk();
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Drop every document rendered for the employee, e.g. after the row was saved.
+     */
+    public void invalidateEmployee(long employeeId) {
+        Set<String> keys = keysByEmployee.remove(employeeId);
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            removeFromMemory(key);
+            deleteFile(directory.resolve(key + SUFFIX));
+        }
+        invalidations.increment();
+        logger.debug("Invalidated {} cached PDFs of employee {}", keys.size(), employeeId);
+    }
+
+    public Stats getStats() {
+        int entries;
+        long bytes;
+        synchronized (memory) {
+            entries = memory.size();
+            bytes = memoryBytes;
+        }
+        long hits = memoryHits.sum() + diskHits.sum();
+        long total = hits + misses.sum();
+        return new Stats(entries, bytes, memoryMaxBytes, diskBytes.get(), diskMaxBytes,
+                memoryHits.sum(), diskHits.sum(), misses.sum(), invalidations.sum(),
+                total == 0 ? 0.0 : (double) hits / total);
+    }
+
+    private byte[] getFromMemory(String key) {
+        synchronized (memory) {
+            return memory.get(key);
+        }
+    }
+
+    private void putInMemory(String key, byte[] bytes) {
+        if (bytes.length > memoryEntryMaxBytes) {
+            return;
+        }
+        synchronized (memory) {
+            byte[] previous = memory.put(key, bytes);
+            memoryBytes += bytes.length - (previous != null ? previous.length : 0);
+
+            Iterator<byte[]> eldest = memory.values().iterator();
+            while (memoryBytes > memoryMaxBytes && eldest.hasNext()) {
+                memoryBytes -= eldest.next().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    private void removeFromMemory(String key) {
+        synchronized (memory) {
+            byte[] removed = memory.remove(key);
+            if (removed != null) {
+                memoryBytes -= removed.length;
+            }
+        }
+    }
+
+    private byte[] readFromDisk(Path file) throws IOException {
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            // Modification time doubles as the last access time for disk eviction
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return bytes;
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private void track(long employeeId, String key) {
+        keysByEmployee.computeIfAbsent(employeeId, id -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+
+    /**
+     * Delete the least recently used files until the disk tier is back to 90% of its limit.
+     */
+    private synchronized void evictDisk() {
+        if (diskBytes.get() <= diskMaxBytes) {
+            return;
+        }
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            logger.warn("Could not list PDF cache directory {}: {}", directory, e.getMessage());
+            return;
+        }
+        files.sort(Comparator.comparing(PdfDocumentCache::lastModified));
+
+        long target = diskMaxBytes * 9 / 10;
+        int evicted = 0;
+        for (Path file : files) {
+            if (diskBytes.get() <= target) {
+                break;
+            }
+            removeFromMemory(keyOf(file));
+            deleteFile(file);
+            evicted++;
+        }
+        logger.info("Evicted {} PDFs from the disk cache, {} bytes left", evicted, diskBytes.get());
+    }
+
+    private void deleteFile(Path file) {
+        try {
+            synchronized (lockFor(keyOf(file))) {
+                long size = sizeOf(file);
+                if (Files.deleteIfExists(file)) {
+                    diskBytes.addAndGet(-size);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not delete cached PDF {}: {}", file, e.getMessage());
+        }
+    }
+
+    private Object lockFor(String key) {
+        return fileLocks[Math.floorMod(key.hashCode(), fileLocks.length)];
+    }
+
+    private static String keyOf(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(0, name.length() - SUFFIX.length());
+    }
+
+    // Size of the file, 0 when it does not exist
+    private static long sizeOf(Path file) throws IOException {
+        try {
+            return Files.size(file);
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+    }
+
+    private long scanDirectory() throws IOException {
+        long total = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    // Left over from a render that was cut short
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(SUFFIX)) {
+                    total += Files.size(file);
+                }
+            }
+        }
+        return total;
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record Stats(int memoryEntries, long memoryBytes, long memoryMaxBytes, long diskBytes, long diskMaxBytes,
+                        long memoryHits, long diskHits, long misses, long invalidations, double hitRatio) {
+    }
+
+    /**
+     * Copies every write to two streams; closing it closes only the second one.
+     */
+    private static final class TeeOutputStream extends OutputStream {
+
+        private final OutputStream first;
+        private final OutputStream second;
+
+        private TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            first.write(b);
+            second.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            first.write(b, off, len);
+            second.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            first.flush();
+            second.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            second.close();
+        }
+    }
+}
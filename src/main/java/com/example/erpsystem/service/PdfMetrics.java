@@ -0,0 +1,153 @@
+package com.example.erpsystem.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters of the form filling pipeline. A render takes a {@link Sample},
+ * adds the time of each stage to it and records everything in one go at the end,
+ * so the drawing loops only do arithmetic on a local array.
+ * <p>
+ * Meters, all tagged with the template name:
+ * <ul>
+ *   <li>erp.pdf.render: whole render, successful ones only</li>
+ *   <li>erp.pdf.stage: per stage, tagged stage=template|fields|boxes|text|close</li>
+ *   <li>erp.pdf.output: bytes written; erp.pdf.pages: pages written</li>
+ *   <li>erp.pdf.failures: failed renders, tagged with the exception class</li>
+ * </ul>
+ * Arabic shaping is reported as erp.arabic.shaping (cache misses and their shaping
+ * time) and erp.arabic.shaping.cache.hits.
+ */
+@Component
+public class PdfMetrics {
+
+    public enum Stage {
+        /** Parsing the template and setting up the stamper */
+        TEMPLATE,
+        /** AcroFields values */
+        FIELDS,
+        /** Box grid and digits */
+        BOXES,
+        /** Text elements, including Arabic shaping */
+        TEXT,
+        /** Flattening and writing the document, done by PdfStamper.close() */
+        CLOSE;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private final MeterRegistry registry;
+    private final Map<String, TemplateMeters> meters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PdfMetrics(MeterRegistry registry, ArabicFontService arabicFontService) {
+        this.registry = registry;
+
+        FunctionTimer.builder("erp.arabic.shaping", arabicFontService,
+                        service -> service.getShapingStats().misses(),
+                        service -> service.getShapingStats().shapingNanos(),
+                        TimeUnit.NANOSECONDS)
+                .description("Arabic shaping and reordering on shaping cache misses")
+                .register(registry);
+        FunctionCounter.builder("erp.arabic.shaping.cache.hits", arabicFontService,
+                        service -> service.getShapingStats().hits())
+                .description("Arabic strings served from the shaping cache")
+                .register(registry);
+    }
+
+    public Sample start(String templateName) {
+        return new Sample(meters.computeIfAbsent(templateName, TemplateMeters::new));
+    }
+
+    /**
+     * Timings of one render. Not thread-safe; a render runs on one thread.
+     */
+    public static final class Sample {
+
+        private final TemplateMeters meters;
+        private final long started = System.nanoTime();
+        private final long[] stageNanos = new long[STAGES.length];
+
+        private Sample(TemplateMeters meters) {
+            this.meters = meters;
+        }
+
+        /**
+         * Add the time since {@code since} to the stage.
+         *
+         * @return the current time, to pass on as the start of the next stage
+         */
+        public long lap(Stage stage, long since) {
+            long now = System.nanoTime();
+            stageNanos[stage.ordinal()] += now - since;
+            return now;
+        }
+
+        public void success(long bytes, int pages) {
+            meters.render.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            for (Stage stage : STAGES) {
+                meters.stages[stage.ordinal()].record(stageNanos[stage.ordinal()], TimeUnit.NANOSECONDS);
+            }
+            meters.output.increment(bytes);
+            meters.pages.increment(pages);
+        }
+
+        public void failure(Throwable error) {
+            meters.failure(error).increment();
+        }
+    }
+
+    private final class TemplateMeters {
+
+        private final String templateName;
+        private final Timer render;
+        private final Timer[] stages = new Timer[STAGES.length];
+        private final Counter output;
+        private final Counter pages;
+        private final Map<Class<?>, Counter> failures = new ConcurrentHashMap<>();
+
+        private TemplateMeters(String templateName) {
+            this.templateName = templateName;
+            this.render = Timer.builder("erp.pdf.render")
+                    .description("Complete render of a filled form")
+                    .tag("template", templateName)
+                    .register(registry);
+            for (Stage stage : STAGES) {
+                stages[stage.ordinal()] = Timer.builder("erp.pdf.stage")
+                        .description("Time spent in one stage of a form render")
+                        .tag("template", templateName)
+                        .tag("stage", stage.tag)
+                        .register(registry);
+            }
+            this.output = Counter.builder("erp.pdf.output")
+                    .description("Bytes of rendered forms")
+                    .baseUnit("bytes")
+                    .tag("template", templateName)
+                    .register(registry);
+            this.pages = Counter.builder("erp.pdf.pages")
+                    .description("Pages of rendered forms")
+                    .tag("template", templateName)
+                    .register(registry);
+        }
+
+        private Counter failure(Throwable error) {
+            return failures.computeIfAbsent(error.getClass(), type -> Counter.builder("erp.pdf.failures")
+                    .description("Form renders that failed")
+                    .tag("template", templateName)
+                    .tag("exception", type.getSimpleName())
+                    .register(registry));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.erpsystem.service;
+
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.PdfReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads every PDF template once at startup and keeps the raw bytes, the AcroForm
+ * field names and the page geometry in memory. Requests get their own reader from
+ * {@link Template#newReader()} instead of going back to the classpath. Each template
+ * has a JSON layout which is compiled into its {@link RenderPlan} here as well.
+ */
+@Component
+public class PdfTemplateRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfTemplateRegistry.class);
+
+    public static final String INSURANCE = "insurance";
+
+    // Template name -> classpath location
+    private static final Map<String, String> TEMPLATE_PATHS = Map.of(
+        INSURANCE, "templates/insurance1.pdf"
+    );
+
+    // Template name -> classpath location of its layout spec
+    private static final Map<String, String> LAYOUT_PATHS = Map.of(
+        INSURANCE, "layouts/insurance1.json"
+    );
+
+    private final Map<String, Template> templates = new LinkedHashMap<>();
+
+    public PdfTemplateRegistry() {
+        for (Map.Entry<String, String> entry : TEMPLATE_PATHS.entrySet()) {
+            String name = entry.getKey();
+            templates.put(name, loadTemplate(name, entry.getValue(), LAYOUT_PATHS.get(name)));
+        }
+    }
+
+    public Template get(String name) {
+        Template template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown PDF template: " + name);
+        }
+        return template;
+    }
+
+    public Template getInsuranceTemplate() {
+        return get(INSURANCE);
+    }
+
+    private Template loadTemplate(String name, String path, String layoutPath) {
+        ClassPathResource resource = new ClassPathResource(path);
+        if (!resource.exists()) {
+            throw new IllegalStateException("PDF template not found: " + path);
+        }
+
+        try (InputStream in = resource.getInputStream()) {
+            byte[] bytes = in.readAllBytes();
+
+            // Parse once to validate the file and capture its structure
+            PdfReader reader = new PdfReader(bytes);
+            try {
+                Set<String> fieldNames = new LinkedHashSet<>(reader.getAcroFields().getFields().keySet());
+                List<Rectangle> pageSizes = new ArrayList<>();
+                for (int page = 1; page <= reader.getNumberOfPages(); page++) {
+                    pageSizes.add(reader.getPageSizeWithRotation(page));
+                }
+
+                RenderPlan renderPlan = loadLayout(name, layoutPath, fieldNames, pageSizes.size());
+                Template template = new Template(name, path, bytes, fieldNames, pageSizes, renderPlan);
+                logger.info("Loaded PDF template '{}' from {} ({} bytes, {} pages, {} fields, version {})",
+                        name, path, bytes.length, pageSizes.size(), fieldNames.size(), template.getVersion());
+                return template;
+            } finally {
+                reader.close();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load PDF template: " + path, e);
+        }
+    }
+
+    private RenderPlan loadLayout(String name, String layoutPath, Set<String> fieldNames, int pages) {
+        ClassPathResource resource = new ClassPathResource(layoutPath);
+        if (!resource.exists()) {
+            throw new IllegalStateException("Layout spec not found: " + layoutPath);
+        }
+
+        try (InputStream in = resource.getInputStream()) {
+            byte[] bytes = in.readAllBytes();
+            LayoutSpec spec = LayoutSpec.read(new ByteArrayInputStream(bytes));
+            return RenderPlan.compile(name, DigestUtils.md5DigestAsHex(bytes), spec, fieldNames, pages);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load layout spec: " + layoutPath, e);
+        }
+    }
+
+    /**
+     * Immutable snapshot of a parsed template.
+     */
+    public static final class Template {
+
+        private final String name;
+        private final String path;
+        private final byte[] bytes;
+        private final Set<String> fieldNames;
+        private final List<Rectangle> pageSizes;
+        private final String version;
+        private final RenderPlan renderPlan;
+
+        private Template(String name, String path, byte[] bytes, Set<String> fieldNames, List<Rectangle> pageSizes,
+                         RenderPlan renderPlan) {
+            this.name = name;
+            this.path = path;
+            this.bytes = bytes;
+            this.fieldNames = Collections.unmodifiableSet(fieldNames);
+            this.pageSizes = Collections.unmodifiableList(pageSizes);
+            this.version = DigestUtils.md5DigestAsHex(bytes);
+            this.renderPlan = renderPlan;
+        }
+
+        /**
+         * A fresh reader over the cached bytes; callers own it and must close it.
+         */
+        public PdfReader newReader() throws IOException {
+            return new PdfReader(bytes);
+        }
+
+        public String getName() { return name; }
+
+        public String getPath() { return path; }
+
+        public int getSize() { return bytes.length; }
+
+        public Set<String> getFieldNames() { return fieldNames; }
+
+        public boolean hasField(String fieldName) { return fieldNames.contains(fieldName); }
+
+        public int getNumberOfPages() { return pageSizes.size(); }
+
+        public Rectangle getPageSize(int page) { return pageSizes.get(page - 1); }
+
+        /** Content hash of the template file */
+        public String getVersion() { return version; }
+
+        public RenderPlan getRenderPlan() { return renderPlan; }
+    }
+}
@@ -0,0 +1,338 @@
+package com.example.erpsystem.service;
+
+import com.example.erpsystem.dto.EmployeeData;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.AcroFields;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfStamper;
+import com.itextpdf.text.pdf.PdfTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, validated form of a {@link LayoutSpec} for one template. Property
+ * getters, font slots and per-page instruction lists are resolved at compile time,
+ * so rendering an employee is a single pass over precomputed arrays.
+ * <p>
+ * The empty boxes of every fixed-size box field are drawn once, at compile time,
+ * into a per-page box grid. Each document places the grid as a form XObject and
+ * draws only the digits on top of it.
+ */
+public final class RenderPlan {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderPlan.class);
+
+    private final String templateName;
+    private final String version;
+    private final FieldFill[] fieldFills;
+    private final String[] fontKeys;
+    private final Op[][] opsByPage;
+    private final BoxGrid[] gridsByPage;
+    private final Method[] inputs;
+
+    private RenderPlan(String templateName, String version, FieldFill[] fieldFills, String[] fontKeys,
+                       Op[][] opsByPage, BoxGrid[] gridsByPage) {
+        this.templateName = templateName;
+        this.version = version;
+        this.fieldFills = fieldFills;
+        this.fontKeys = fontKeys;
+        this.opsByPage = opsByPage;
+        this.gridsByPage = gridsByPage;
+
+        Set<Method> getters = new LinkedHashSet<>();
+        for (FieldFill fill : fieldFills) {
+            getters.add(fill.getter());
+        }
+        for (Op[] ops : opsByPage) {
+            for (Op op : ops) {
+                getters.add(op.getter());
+            }
+        }
+        this.inputs = getters.toArray(new Method[0]);
+    }
+
+    /**
+     * Validate the spec against the template structure and resolve everything that
+     * does not depend on the employee. Form fields missing from the template are
+     * dropped with a warning; anything else that does not fit fails startup.
+     */
+    public static RenderPlan compile(String templateName, String version, LayoutSpec spec,
+                                     Set<String> templateFields, int templatePages) {
+        if (spec.pages() != templatePages) {
+            throw new IllegalStateException("Layout for '" + templateName + "' expects " + spec.pages()
+                    + " pages but the template has " + templatePages);
+        }
+
+        List<FieldFill> fieldFills = new ArrayList<>();
+        if (spec.formFields() != null) {
+            for (Map.Entry<String, String> entry : spec.formFields().entrySet()) {
+                if (!templateFields.contains(entry.getKey())) {
+                    logger.warn("Layout for '{}' fills field '{}' which is not in the template, ignoring it",
+                            templateName, entry.getKey());
+                    continue;
+                }
+                fieldFills.add(new FieldFill(entry.getKey(), getter(templateName, entry.getValue())));
+            }
+        }
+
+        Map<String, Integer> fontSlots = new LinkedHashMap<>();
+        List<List<Op>> pages = new ArrayList<>();
+        List<BoxGrid.Builder> grids = new ArrayList<>();
+        for (int page = 0; page < templatePages; page++) {
+            pages.add(new ArrayList<>());
+            grids.add(new BoxGrid.Builder());
+        }
+
+        List<LayoutSpec.Element> elements = spec.elements() != null ? spec.elements() : List.of();
+        for (LayoutSpec.Element element : elements) {
+            if (element.type() == null) {
+                throw new IllegalStateException("Layout for '" + templateName + "' has an element without a type");
+            }
+            if (element.page() < 1 || element.page() > templatePages) {
+                throw new IllegalStateException("Layout for '" + templateName + "' draws " + element.source()
+                        + " on page " + element.page() + " of " + templatePages);
+            }
+
+            boolean text = element.type() == LayoutSpec.Type.TEXT;
+            String fontKey = element.font() != null ? element.font() : (text ? spec.textFont() : spec.boxFont());
+            if (fontKey == null) {
+                throw new IllegalStateException("Layout for '" + templateName + "' has no font for " + element.source());
+            }
+            int fontIndex = fontSlots.computeIfAbsent(fontKey, key -> fontSlots.size());
+
+            float lineWidth = element.lineWidth() != null ? element.lineWidth() : NumberBoxRenderer.LINE_THICKNESS;
+            int boxCount = element.boxCount() != null ? element.boxCount() : 7;
+
+            // Box rows without a boxCount are sized by their value and drawn whole per document
+            float[] boxX = null;
+            if (!text && (element.type() != LayoutSpec.Type.BOXES || element.boxCount() != null)) {
+                int fixed = NumberBoxRenderer.fixedBoxCount(element.type());
+                boxX = NumberBoxRenderer.boxPositions(element.type(), element.x(), fixed > 0 ? fixed : boxCount);
+                grids.get(element.page() - 1).add(element.type(), boxX, element.x(), element.y(), lineWidth, fontIndex);
+            }
+
+            pages.get(element.page() - 1).add(new Op(
+                    element.type(),
+                    getter(templateName, element.source()),
+                    element.label() != null ? element.label() : element.source(),
+                    element.x(),
+                    element.y(),
+                    lineWidth,
+                    boxCount,
+                    element.fontSize() != null ? element.fontSize() : 12f,
+                    fontIndex,
+                    boxX));
+        }
+
+        Op[][] opsByPage = new Op[templatePages][];
+        BoxGrid[] gridsByPage = new BoxGrid[templatePages];
+        int gridBoxes = 0;
+        for (int page = 0; page < templatePages; page++) {
+            opsByPage[page] = pages.get(page).toArray(new Op[0]);
+            gridsByPage[page] = grids.get(page).build();
+            gridBoxes += gridsByPage[page] != null ? gridsByPage[page].boxes() : 0;
+        }
+
+        logger.info("Compiled layout for '{}': {} form fields, {} draw operations, {} grid boxes, fonts {}",
+                templateName, fieldFills.size(), elements.size(), gridBoxes, fontSlots.keySet());
+        return new RenderPlan(templateName, version, fieldFills.toArray(new FieldFill[0]),
+                fontSlots.keySet().toArray(new String[0]), opsByPage, gridsByPage);
+    }
+
+    /**
+     * Fill the form fields and draw every element for one employee.
+     *
+     * @param fonts  one font per {@link #getFontKeys()} slot, in the same order
+     * @param sample receives the time spent on fields, boxes and text
+     */
+    public void render(PdfStamper stamper, EmployeeData data, BaseFont[] fonts, NumberBoxRenderer renderer,
+                       PdfMetrics.Sample sample) throws IOException, DocumentException {
+        long stageStart = System.nanoTime();
+        AcroFields form = stamper.getAcroFields();
+        for (FieldFill fill : fieldFills) {
+            String value = read(fill.getter(), data);
+            form.setField(fill.fieldName(), value != null ? value : "");
+        }
+        stageStart = sample.lap(PdfMetrics.Stage.FIELDS, stageStart);
+
+        for (int page = 1; page <= opsByPage.length; page++) {
+            Op[] ops = opsByPage[page - 1];
+            if (ops.length == 0) {
+                continue;
+            }
+            PdfContentByte canvas = stamper.getOverContent(page);
+            if (gridsByPage[page - 1] != null) {
+                gridsByPage[page - 1].place(canvas, fonts, fontKeys);
+            }
+            stageStart = sample.lap(PdfMetrics.Stage.BOXES, stageStart);
+
+            for (Op op : ops) {
+                String value = read(op.getter(), data);
+                if (value == null || value.isEmpty()) {
+                    continue;
+                }
+                BaseFont font = fonts[op.fontIndex()];
+                if (font == null) {
+                    logger.warn("Font '{}' is not available, skipping {} on page {}", fontKeys[op.fontIndex()], op.label(), page);
+                    continue;
+                }
+
+                try {
+                    draw(op, canvas, font, value, renderer);
+                } catch (Exception e) {
+                    logger.error("Could not draw {} on page {} of '{}': {}", op.label(), page, templateName, e.getMessage(), e);
+                }
+                stageStart = sample.lap(op.type() == LayoutSpec.Type.TEXT ? PdfMetrics.Stage.TEXT : PdfMetrics.Stage.BOXES,
+                        stageStart);
+            }
+        }
+    }
+
+    private static void draw(Op op, PdfContentByte canvas, BaseFont font, String value, NumberBoxRenderer renderer)
+            throws Exception {
+        if (op.boxX() != null) {
+            renderer.drawDigitsInGrid(canvas, font, op.type(), value, op.boxX(), op.y(), op.lineWidth(), op.label());
+            return;
+        }
+        switch (op.type()) {
+            case BOXES -> renderer.drawProfessionalBoxes(canvas, font, value, op.x(), op.y(), op.label(), op.lineWidth());
+            case SALARY_BOXES -> renderer.drawSalaryInBoxes(canvas, font, value, op.x(), op.y(), op.label(), op.boxCount());
+            case CODE_WITH_SLASH -> renderer.drawNumberWithSlashSeparator(canvas, font, value, op.x(), op.y(), op.label());
+            case DATE_BOXES -> renderer.drawDateInBoxes(canvas, font, value, op.x(), op.y(), op.label());
+            case TEXT -> renderer.drawArabicTextAtPosition(canvas, font, value, op.x(), op.y(), op.fontSize(), op.label());
+        }
+    }
+
+    /**
+     * Feed every employee value the plan reads into the digest, in a fixed order, so
+     * equal digests mean equal rendered output for the same template and layout.
+     */
+    public void updateDigest(MessageDigest digest, EmployeeData data) {
+        for (Method input : inputs) {
+            String value = read(input, data);
+            if (value == null) {
+                digest.update((byte) 0);
+            } else {
+                digest.update((byte) 1);
+                digest.update(value.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+        }
+    }
+
+    /** Font keys the plan uses; resolve them once per document and pass them to {@link #render}. */
+    public String[] getFontKeys() {
+        return fontKeys.clone();
+    }
+
+    public String getTemplateName() { return templateName; }
+
+    /** Content hash of the layout file */
+    public String getVersion() { return version; }
+
+    private static Method getter(String templateName, String property) {
+        PropertyDescriptor descriptor = property != null
+                ? BeanUtils.getPropertyDescriptor(EmployeeData.class, property) : null;
+        if (descriptor == null || descriptor.getReadMethod() == null
+                || descriptor.getPropertyType() != String.class) {
+            throw new IllegalStateException("Layout for '" + templateName + "' refers to unknown text property: " + property);
+        }
+        return descriptor.getReadMethod();
+    }
+
+    private static String read(Method getter, EmployeeData data) {
+        try {
+            return (String) getter.invoke(data);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not read " + getter.getName(), e);
+        }
+    }
+
+    private record FieldFill(String fieldName, Method getter) {
+    }
+
+    /**
+     * @param boxX left edges of the field's boxes in the page's box grid, or null when
+     *             the element is drawn in full per document
+     */
+    private record Op(LayoutSpec.Type type, Method getter, String label, float x, float y,
+                      float lineWidth, int boxCount, float fontSize, int fontIndex, float[] boxX) {
+    }
+
+    /**
+     * The empty boxes and separator slashes of one page. The box outlines are
+     * rendered to content stream bytes once; the slashes are glyphs and need the
+     * document's font, so they are added when the grid is placed.
+     */
+    private record BoxGrid(byte[] geometry, Rectangle bounds, Slash[] slashes, int boxes) {
+
+        /** Add the grid to the page as a form XObject */
+        void place(PdfContentByte canvas, BaseFont[] fonts, String[] fontKeys) {
+            PdfTemplate template = canvas.createTemplate(bounds.getRight(), bounds.getTop());
+            template.setBoundingBox(bounds);
+            template.getInternalBuffer().append(geometry);
+            for (Slash slash : slashes) {
+                BaseFont font = fonts[slash.fontIndex()];
+                if (font == null) {
+                    logger.warn("Font '{}' is not available, skipping a box grid separator", fontKeys[slash.fontIndex()]);
+                    continue;
+                }
+                NumberBoxRenderer.drawSlash(template, font, slash.x(), slash.y());
+            }
+            canvas.addTemplate(template, 0, 0);
+        }
+
+        private record Slash(float x, float y, int fontIndex) {
+        }
+
+        private static final class Builder {
+
+            private final PdfContentByte geometry = new PdfContentByte(null);
+            private final List<Slash> slashes = new ArrayList<>();
+            private Rectangle bounds;
+            private int boxes;
+
+            void add(LayoutSpec.Type type, float[] boxX, float x, float y, float lineWidth, int fontIndex) {
+                for (float boxLeft : boxX) {
+                    NumberBoxRenderer.drawEmptyBox(geometry, boxLeft, y, lineWidth);
+                    include(boxLeft - lineWidth, y - lineWidth,
+                            boxLeft + NumberBoxRenderer.BOX_WIDTH + lineWidth, y + NumberBoxRenderer.BOX_HEIGHT + lineWidth);
+                }
+                boxes += boxX.length;
+                for (float slashX : NumberBoxRenderer.slashPositions(type, x)) {
+                    slashes.add(new Slash(slashX, y, fontIndex));
+                    include(slashX, y, slashX + NumberBoxRenderer.BOX_WIDTH, y + NumberBoxRenderer.BOX_HEIGHT);
+                }
+            }
+
+            private void include(float llx, float lly, float urx, float ury) {
+                bounds = bounds == null ? new Rectangle(llx, lly, urx, ury) : new Rectangle(
+                        Math.min(bounds.getLeft(), llx), Math.min(bounds.getBottom(), lly),
+                        Math.max(bounds.getRight(), urx), Math.max(bounds.getTop(), ury));
+            }
+
+            BoxGrid build() {
+                if (boxes == 0) {
+                    return null;
+                }
+                return new BoxGrid(geometry.getInternalBuffer().toByteArray(), bounds,
+                        slashes.toArray(new Slash[0]), boxes);
+            }
+        }
+    }
+}
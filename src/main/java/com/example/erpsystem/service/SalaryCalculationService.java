@@ -3,63 +3,104 @@ package com.example.erpsystem.service;
 import org.springframework.stereotype.Service;
 import com.example.erpsystem.model.SalaryEntity;
 
+/**
+ * Monthly net salary, social insurance shares, martyrs fund and income tax. Each step of
+ * the formula is written once, as a primitive {@code double} function, and every entry
+ * point goes through the same per-employee kernel, so all of them give the same cents.
+ * The kernel hands its results to a sink: the batch writes them into {@link SalaryColumns},
+ * the single-salary methods into the entity or nowhere, without arrays.
+ */
 @Service
 public class SalaryCalculationService {
-    
-    private static final Double ANNUAL_DEDUCTION = 20000.0;
-    
+
+    private static final double ANNUAL_DEDUCTION = 20000.0;
+    private static final double COMPANY_SHARE_RATE = 0.1875;
+    private static final double EMPLOYEE_SHARE_RATE = 0.11;
+    private static final double MARTYRS_FUND_RATE = 0.0005;
+
+    // Sinks without captured state, so no call allocates one
+    private static final ComponentSink<SalaryColumns> TO_COLUMNS = SalaryColumns::set;
+    private static final ComponentSink<SalaryEntity> TO_ENTITY = (salary, row, companyShareSocInsurance,
+            employeeShareSocInsurance, martyrsFund, annualTaxPools, taxesBasic, netSalary) -> {
+        salary.setCompanyShareSocInsurance(companyShareSocInsurance);
+        salary.setEmployeeShareSocInsurance(employeeShareSocInsurance);
+        salary.setMartyrsFund(martyrsFund);
+        salary.setAnnualTaxPools(annualTaxPools);
+        salary.setTaxesBasic(taxesBasic);
+        salary.setNetSalary(netSalary);
+    };
+    private static final ComponentSink<Object> NOWHERE = (target, row, companyShareSocInsurance,
+            employeeShareSocInsurance, martyrsFund, annualTaxPools, taxesBasic, netSalary) -> { };
+
     public Double calculateNetSalary(Double grossSalary, Double contributionSalary) {
-    // 1. Company Share SOC Insurance = Contribution Salary * 0.1875
-    Double companyShareSocInsurance = contributionSalary * 0.1875;
-    
-    // 2. Employee Share SOC Insurance = Contribution Salary * 0.11
-    Double employeeShareSocInsurance = contributionSalary * 0.11;
-    
-    // 3. Martyrs Fund = Gross Salary * 0.0005
-    Double martyrsFund = grossSalary * 0.0005;
-    
-    // ORIGINAL WORKING FORMULA: Annual Tax Pools = ((Gross Salary - Employee Share SOC Insurance) * 12 - 20000)
-    Double annualTaxPools = ((grossSalary - employeeShareSocInsurance) * 12) - ANNUAL_DEDUCTION;
-    
-    // 5. Taxes (Basic) - Annual calculation divided by 12 for monthly
-    Double annualTaxesBasic = calculateTaxesBasic(annualTaxPools);
-    Double monthlyTaxesBasic = annualTaxesBasic / 12;
-    
-    // 6. Net Salary = Gross Salary - Employee Share SOC Insurance - Taxes Basic - Martyrs Fund
-    Double netSalary = grossSalary - employeeShareSocInsurance - monthlyTaxesBasic - martyrsFund;
-    
-    return round(netSalary);
-}
+        return calculateRow(grossSalary, contributionSalary, NOWHERE, null, 0);
+    }
+
+    public SalaryEntity calculateAndPopulateSalary(SalaryEntity salary) {
+        calculateRow(salary.getGrossSalary(), salary.getContributionSalary(), TO_ENTITY, salary, 0);
+        return salary;
+    }
+
+    /**
+     * Columnar entry point: the components of the first {@code count} employees, element
+     * i of the inputs giving row i of {@code out}. Nothing is allocated, so payroll runs
+     * and what-if simulations can reuse one {@link SalaryColumns} for many batches.
+     *
+     * @throws IllegalArgumentException when an input or {@code out} holds fewer than count rows
+     */
+    public void calculateBatch(double[] grossSalaries, double[] contributionSalaries, int count, SalaryColumns out) {
+        if (grossSalaries.length < count || contributionSalaries.length < count || out.capacity() < count) {
+            throw new IllegalArgumentException("Salary batch of " + count + " rows does not fit: "
+                    + grossSalaries.length + " gross, " + contributionSalaries.length + " contribution, "
+                    + out.capacity() + " output rows");
+        }
+        for (int i = 0; i < count; i++) {
+            calculateRow(grossSalaries[i], contributionSalaries[i], TO_COLUMNS, out, i);
+        }
+    }
+
+    /**
+     * Components for every element of the inputs, in new columns.
+     */
+    public SalaryColumns calculateBatch(double[] grossSalaries, double[] contributionSalaries) {
+        SalaryColumns out = new SalaryColumns(grossSalaries.length);
+        calculateBatch(grossSalaries, contributionSalaries, grossSalaries.length, out);
+        return out;
+    }
 
-public SalaryEntity calculateAndPopulateSalary(SalaryEntity salary) {
-    Double grossSalary = salary.getGrossSalary();
-    Double contributionSalary = salary.getContributionSalary();
+    /**
+     * All components of one employee in one pass, rounded and passed to the sink.
+     *
+     * @return the net salary, as passed to the sink
+     */
+    private static <T> double calculateRow(double grossSalary, double contributionSalary,
+                                           ComponentSink<T> sink, T target, int row) {
+        double employeeShareSocInsurance = contributionSalary * EMPLOYEE_SHARE_RATE;
+        double annualTaxPools = annualTaxPools(grossSalary, employeeShareSocInsurance);
+        double monthlyTaxesBasic = monthlyTaxesBasic(annualTaxPools);
+        double netSalary = round(netSalary(grossSalary, employeeShareSocInsurance, monthlyTaxesBasic));
+
+        sink.accept(target, row, round(contributionSalary * COMPANY_SHARE_RATE), round(employeeShareSocInsurance),
+                round(grossSalary * MARTYRS_FUND_RATE), round(annualTaxPools), round(monthlyTaxesBasic), netSalary);
+        return netSalary;
+    }
 
-    // Perform all calculations
-    Double companyShareSocInsurance = contributionSalary * 0.1875;
-    Double employeeShareSocInsurance = contributionSalary * 0.11;
-    Double martyrsFund = grossSalary * 0.0005;
-    
     // ORIGINAL WORKING FORMULA: Annual Tax Pools = ((Gross Salary - Employee Share SOC Insurance) * 12 - 20000)
-    Double annualTaxPools = ((grossSalary - employeeShareSocInsurance) * 12) - ANNUAL_DEDUCTION;
-    
-    Double annualTaxesBasic = calculateTaxesBasic(annualTaxPools);
-    Double monthlyTaxesBasic = annualTaxesBasic / 12;
-    Double netSalary = grossSalary - employeeShareSocInsurance - monthlyTaxesBasic - martyrsFund;
-    
-    // Set all fields
-    salary.setCompanyShareSocInsurance(round(companyShareSocInsurance));
-    salary.setEmployeeShareSocInsurance(round(employeeShareSocInsurance));
-    salary.setMartyrsFund(round(martyrsFund));
-    salary.setAnnualTaxPools(round(annualTaxPools));
-    salary.setTaxesBasic(round(monthlyTaxesBasic));
-    salary.setNetSalary(round(netSalary));
-    
-    return salary;
-}
-    
-    // calculateTaxesBasic method remains the same...
-    private Double calculateTaxesBasic(Double annualTaxPools) {
+    private static double annualTaxPools(double grossSalary, double employeeShareSocInsurance) {
+        return ((grossSalary - employeeShareSocInsurance) * 12) - ANNUAL_DEDUCTION;
+    }
+
+    // Taxes (Basic) - Annual calculation divided by 12 for monthly
+    private static double monthlyTaxesBasic(double annualTaxPools) {
+        return calculateTaxesBasic(annualTaxPools) / 12;
+    }
+
+    // Net Salary = Gross Salary - Employee Share SOC Insurance - Taxes Basic - Martyrs Fund
+    private static double netSalary(double grossSalary, double employeeShareSocInsurance, double monthlyTaxesBasic) {
+        return grossSalary - employeeShareSocInsurance - monthlyTaxesBasic - grossSalary * MARTYRS_FUND_RATE;
+    }
+
+    private static double calculateTaxesBasic(double annualTaxPools) {
         if (annualTaxPools <= 0) {
             return 0.0;
         } else if (annualTaxPools <= 40000) {
@@ -86,9 +127,16 @@ public SalaryEntity calculateAndPopulateSalary(SalaryEntity salary) {
             return ((annualTaxPools - 1200000) * 0.275) + 300000;
         }
     }
-    
-    private Double round(Double value) {
-        if (value == null) return 0.0;
+
+    /** To cents, like the saved salaries */
+    static double round(double value) {
         return Math.round(value * 100.0) / 100.0;
     }
-}
\ No newline at end of file
+
+    // Where the kernel puts the components of one employee; row is ignored by single-salary targets
+    @FunctionalInterface
+    private interface ComponentSink<T> {
+        void accept(T target, int row, double companyShareSocInsurance, double employeeShareSocInsurance,
+                    double martyrsFund, double annualTaxPools, double taxesBasic, double netSalary);
+    }
+}
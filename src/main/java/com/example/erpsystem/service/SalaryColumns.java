@@ -0,0 +1,66 @@
+package com.example.erpsystem.service;
+
+import com.example.erpsystem.model.SalaryEntity;
+
+/**
+ * Salary components of many employees as parallel arrays, row i for employee i, filled
+ * by {@link SalaryCalculationService#calculateBatch}. Values are monthly, rounded to
+ * cents like the saved salaries. The getters return the arrays themselves, so a batch
+ * can be read column by column and refilled for the next employees without allocating.
+ */
+public final class SalaryColumns {
+
+    final double[] companyShareSocInsurance;
+    final double[] employeeShareSocInsurance;
+    final double[] martyrsFund;
+    final double[] annualTaxPools;
+    final double[] taxesBasic;
+    final double[] netSalary;
+
+    public SalaryColumns(int capacity) {
+        this.companyShareSocInsurance = new double[capacity];
+        this.employeeShareSocInsurance = new double[capacity];
+        this.martyrsFund = new double[capacity];
+        this.annualTaxPools = new double[capacity];
+        this.taxesBasic = new double[capacity];
+        this.netSalary = new double[capacity];
+    }
+
+    public int capacity() { return netSalary.length; }
+
+    public double[] getCompanyShareSocInsurance() { return companyShareSocInsurance; }
+
+    public double[] getEmployeeShareSocInsurance() { return employeeShareSocInsurance; }
+
+    public double[] getMartyrsFund() { return martyrsFund; }
+
+    /** Yearly amount the tax brackets apply to */
+    public double[] getAnnualTaxPools() { return annualTaxPools; }
+
+    /** Monthly share of the yearly tax */
+    public double[] getTaxesBasic() { return taxesBasic; }
+
+    public double[] getNetSalary() { return netSalary; }
+
+    void set(int row, double companyShareSocInsurance, double employeeShareSocInsurance, double martyrsFund,
+             double annualTaxPools, double taxesBasic, double netSalary) {
+        this.companyShareSocInsurance[row] = companyShareSocInsurance;
+        this.employeeShareSocInsurance[row] = employeeShareSocInsurance;
+        this.martyrsFund[row] = martyrsFund;
+        this.annualTaxPools[row] = annualTaxPools;
+        this.taxesBasic[row] = taxesBasic;
+        this.netSalary[row] = netSalary;
+    }
+
+    /**
+     * Set the calculated fields of a salary from one row.
+     */
+    public void copyTo(int row, SalaryEntity salary) {
+        salary.setCompanyShareSocInsurance(companyShareSocInsurance[row]);
+        salary.setEmployeeShareSocInsurance(employeeShareSocInsurance[row]);
+        salary.setMartyrsFund(martyrsFund[row]);
+        salary.setAnnualTaxPools(annualTaxPools[row]);
+        salary.setTaxesBasic(taxesBasic[row]);
+        salary.setNetSalary(netSalary[row]);
+    }
+}
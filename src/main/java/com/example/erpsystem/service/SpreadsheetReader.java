@@ -0,0 +1,214 @@
+package com.example.erpsystem.service;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Streams the rows of a .csv file or of the first sheet of an .xlsx workbook to a
+ * handler, one row at a time; the whole file is never held in memory. Cells come as
+ * text: numbers in plain notation (no exponent, no grouping) and date cells as
+ * yyyy-MM-dd, whatever their display format in Excel.
+ */
+public final class SpreadsheetReader {
+
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * @param rowNumber one-based row number as shown by a spreadsheet program
+         * @param cells     cell texts from the first column on, blank cells as ""
+         */
+        void row(int rowNumber, List<String> cells);
+    }
+
+    private SpreadsheetReader() {
+    }
+
+    /**
+     * Read a CSV file in UTF-8 (a byte order mark is skipped). The delimiter is comma,
+     * semicolon or tab, whichever the first line uses most. Quoted cells may contain
+     * delimiters, doubled quotes and line breaks.
+     */
+    public static void readCsv(InputStream in, RowHandler handler) throws IOException {
+        Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        char[] buffer = new char[64 * 1024];
+        int length = readFirstLine(reader, buffer);
+        if (length <= 0) {
+            return;
+        }
+        int position = buffer[0] == '\uFEFF' ? 1 : 0;
+        char delimiter = detectDelimiter(buffer, position, length);
+
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        int rowNumber = 1;
+        boolean quoted = false;
+        boolean quoteInQuoted = false;
+        while (length > 0) {
+            for (int i = position; i < length; i++) {
+                char c = buffer[i];
+                if (quoteInQuoted) {
+                    quoteInQuoted = false;
+                    if (c == '"') {
+                        cell.append('"');
+                        continue;
+                    }
+                    quoted = false;
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        quoteInQuoted = true;
+                    } else {
+                        cell.append(c);
+                    }
+                } else if (c == delimiter) {
+                    cells.add(cell.toString());
+                    cell.setLength(0);
+                } else if (c == '\n') {
+                    cells.add(cell.toString());
+                    cell.setLength(0);
+                    handler.row(rowNumber++, cells);
+                    cells = new ArrayList<>(cells.size());
+                } else if (c == '"' && cell.isEmpty()) {
+                    quoted = true;
+                } else if (c != '\r') {
+                    cell.append(c);
+                }
+            }
+            position = 0;
+            length = reader.read(buffer);
+        }
+        if (!cell.isEmpty() || !cells.isEmpty()) {
+            cells.add(cell.toString());
+            handler.row(rowNumber, cells);
+        }
+    }
+
+    // A single read may stop anywhere in the first line, e.g. on a slow upload; the
+    // delimiter has to be detected on all of it
+    private static int readFirstLine(Reader reader, char[] buffer) throws IOException {
+        int length = 0;
+        while (length < buffer.length) {
+            int read = reader.read(buffer, length, buffer.length - length);
+            if (read < 0) {
+                break;
+            }
+            for (int i = length; i < length + read; i++) {
+                if (buffer[i] == '\n') {
+                    return length + read;
+                }
+            }
+            length += read;
+        }
+        return length;
+    }
+
+    private static char detectDelimiter(char[] buffer, int from, int to) {
+        int commas = 0;
+        int semicolons = 0;
+        int tabs = 0;
+        for (int i = from; i < to && buffer[i] != '\n'; i++) {
+            switch (buffer[i]) {
+                case ',' -> commas++;
+                case ';' -> semicolons++;
+                case '\t' -> tabs++;
+                default -> { }
+            }
+        }
+        if (semicolons > commas && semicolons >= tabs) {
+            return ';';
+        }
+        return tabs > commas ? '\t' : ',';
+    }
+
+    /**
+     * Read the first sheet of an .xlsx workbook with the SAX event API. Only shared
+     * strings and styles are loaded up front; cells are parsed as the sheet XML streams
+     * by. The file is opened read-only, with random access to the zip entries.
+     */
+    public static void readXlsx(Path file, RowHandler handler) throws IOException {
+        try (OPCPackage workbook = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader xssfReader = new XSSFReader(workbook);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(workbook, false);
+            Iterator<InputStream> sheets = xssfReader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(xssfReader.getStylesTable(), null, strings,
+                        new RowCollector(handler), new PlainDataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Not a readable .xlsx workbook: " + e.getMessage(), e);
+        }
+    }
+
+    // Places cells by their column reference, since empty cells are left out of the XML
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+        private List<String> cells = new ArrayList<>();
+
+        private RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new ArrayList<>(cells.size());
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            handler.row(rowNum + 1, cells);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference == null ? cells.size() : new CellReference(cellReference).getCol();
+            while (cells.size() < column) {
+                cells.add("");
+            }
+            cells.add(formattedValue == null ? "" : formattedValue);
+        }
+    }
+
+    // Excel display formats would give "1/5/24" for dates and "2.95E+13" for long
+    // national IDs in General format; the import wants the underlying values instead
+    private static final class PlainDataFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString,
+                                            boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value, use1904Windowing).toLocalDate().toString();
+            }
+            return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+        }
+    }
+}
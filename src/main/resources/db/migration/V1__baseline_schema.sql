@@ -0,0 +1,49 @@
+-- Tables as Hibernate created them while the schema was still generated from the
+-- entities (ddl-auto=update). Existing databases already have them; new databases
+-- get them here.
+
+CREATE SEQUENCE IF NOT EXISTS employee_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS employee (
+    id                              bigint NOT NULL DEFAULT nextval('employee_seq') PRIMARY KEY,
+    start_date                      date,
+    end_date                        date,
+    company_name_english            varchar(255),
+    company_name_arabic             varchar(255),
+    employee_name_english           varchar(255),
+    employee_name_arabic            varchar(255),
+    national_id                     varchar(255),
+    insurance_number                varchar(255),
+    title_english                   varchar(255),
+    title_arabic                    varchar(255),
+    education_english               varchar(255),
+    education_arabic                varchar(255),
+    address_english                 varchar(255),
+    address_arabic                  varchar(255),
+    basic_salary                    numeric(38, 2),
+    basic_salary_english_text       varchar(255),
+    basic_salary_arabic_text        varchar(255),
+    company_insurance_number        varchar(255),
+    company_tax_number              varchar(255),
+    job_title_code                  varchar(255),
+    contribution_salary             numeric(38, 2),
+    created_at                      date,
+    employee_photo                  varchar(255),
+    variable_salary_in_number       numeric(38, 2),
+    variable_salary_in_english_text varchar(255),
+    variable_salary_in_arabic_text  varchar(255)
+);
+
+CREATE TABLE IF NOT EXISTS salary (
+    id                           bigserial PRIMARY KEY,
+    employee_id                  bigint REFERENCES employee (id),
+    gross_salary                 double precision,
+    contribution_salary          double precision,
+    net_salary                   double precision,
+    company_share_soc_insurance  double precision,
+    employee_share_soc_insurance double precision,
+    martyrs_fund                 double precision,
+    annual_tax_pools             double precision,
+    taxes_basic                  double precision,
+    salary_date                  date
+);
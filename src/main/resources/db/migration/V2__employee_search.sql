@@ -0,0 +1,26 @@
+-- Employee search: a normalized copy of the searchable columns with a trigram index.
+-- Idempotent, as databases that predate migrations already have it.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Lower case, Arabic diacritics and tatweel removed, alef variants (hamza above and
+-- below, madda, wasla) folded to bare alef, alef maqsura to ya, ta marbuta to ha,
+-- Arabic-Indic and Persian digits to ASCII. Queries go through the same function.
+CREATE OR REPLACE FUNCTION erp_search_normalize(value text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+    RETURN lower(translate(
+        regexp_replace(value, '[\u064B-\u065F\u0670\u0640]', '', 'g'),
+        U&'\0623\0625\0622\0671\0649\0629' || U&'\0660\0661\0662\0663\0664\0665\0666\0667\0668\0669'
+            || U&'\06F0\06F1\06F2\06F3\06F4\06F5\06F6\06F7\06F8\06F9',
+        U&'\0627\0627\0627\0627\064A\0647' || '0123456789' || '0123456789'));
+
+-- Maintained by PostgreSQL on every write path. A changed normalization only applies
+-- to rows written afterwards; drop the column to rebuild it.
+ALTER TABLE employee ADD COLUMN IF NOT EXISTS search_text text GENERATED ALWAYS AS (
+    erp_search_normalize(
+        coalesce(employee_name_english, '') || ' ' || coalesce(employee_name_arabic, '') || ' ' ||
+        coalesce(company_name_english, '') || ' ' || coalesce(company_name_arabic, '') || ' ' ||
+        coalesce(national_id, '') || ' ' || coalesce(insurance_number, ''))
+) STORED;
+
+CREATE INDEX IF NOT EXISTS employee_search_text_trgm ON employee USING gin (search_text gin_trgm_ops);
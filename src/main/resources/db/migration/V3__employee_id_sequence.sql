@@ -0,0 +1,11 @@
+-- Employee ids come from employee_seq in blocks of 50 (Hibernate's pooled optimizer
+-- takes nextval as the top of a block). The sequence starts at 1, while ids were first
+-- handed out by the employee_id_seq serial column; move the sequence past every
+-- existing id, but never back, since a running instance may still hold a block above
+-- the highest stored id.
+SELECT setval('employee_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM employee),
+                                       (SELECT last_value FROM employee_seq)));
+
+-- Rows inserted outside the application take ids from the same sequence. Each nextval
+-- is the top of a block nobody else owns, so they never collide with pooled ids.
+ALTER TABLE employee ALTER COLUMN id SET DEFAULT nextval('employee_seq');
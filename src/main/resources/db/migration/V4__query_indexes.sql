@@ -0,0 +1,20 @@
+-- Indexes for the repository queries that used to scan. DatabaseIndexCheck warns at
+-- startup when any of them is missing or invalid; keep its list in step.
+
+-- Salaries of an employee, all of them (findByEmployeeId), newest first
+-- (findLatestByEmployeeId) or within a date range, which includes the month lookup
+CREATE INDEX IF NOT EXISTS salary_employee_date_idx ON salary (employee_id, salary_date);
+
+-- Payroll for a period across employees (findBySalaryDateBetween)
+CREATE INDEX IF NOT EXISTS salary_date_idx ON salary (salary_date);
+
+-- Exact lookups by the identity numbers on contracts and insurance forms
+CREATE INDEX IF NOT EXISTS employee_national_id_idx ON employee (national_id);
+CREATE INDEX IF NOT EXISTS employee_insurance_number_idx ON employee (insurance_number);
+
+-- Employees of one company in id order (findByCompanyNameInEnglishIgnoreCaseOrderByIdAsc,
+-- which Hibernate compares with upper() on both sides)
+CREATE INDEX IF NOT EXISTS employee_company_name_idx ON employee (upper(company_name_english), id);
+
+-- Contracts still running on a day (countActiveOn) and contracts about to end
+CREATE INDEX IF NOT EXISTS employee_end_date_idx ON employee (end_date);
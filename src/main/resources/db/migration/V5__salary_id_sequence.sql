@@ -0,0 +1,9 @@
+-- Salary ids come from salary_seq in blocks of 50, like employee ids, so payroll runs
+-- can insert in JDBC batches. Move the sequence past the ids handed out by the
+-- salary_id_seq serial column.
+CREATE SEQUENCE IF NOT EXISTS salary_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('salary_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM salary),
+                                     (SELECT last_value FROM salary_seq)));
+
+ALTER TABLE salary ALTER COLUMN id SET DEFAULT nextval('salary_seq');
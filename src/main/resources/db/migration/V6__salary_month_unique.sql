@@ -0,0 +1,29 @@
+-- At most one salary per employee and month. Databases from before the month check in
+-- SalaryController may hold duplicates, which would make the index fail with a bare
+-- "could not create unique index". List them instead, so they can be cleaned up; the
+-- migration runs again on the next start.
+DO $$
+DECLARE
+    duplicates text;
+BEGIN
+    SELECT string_agg(format('employee %s, %s: salary ids %s', employee_id, to_char(month, 'YYYY-MM'), ids),
+                      E'\n' ORDER BY employee_id, month)
+    INTO duplicates
+    FROM (SELECT employee_id, date_trunc('month', salary_date::timestamp) AS month,
+                 string_agg(id::text, ', ' ORDER BY id) AS ids
+          FROM salary
+          WHERE employee_id IS NOT NULL AND salary_date IS NOT NULL
+          GROUP BY 1, 2
+          HAVING count(*) > 1) duplicate_months;
+
+    IF duplicates IS NOT NULL THEN
+        RAISE EXCEPTION E'More than one salary is saved for the same employee and month:\n%', duplicates
+            USING HINT = 'Keep one salary per employee and month (DELETE FROM salary WHERE id IN (...)), '
+                || 'then start the application again. Until then spring.flyway.target=5 starts it without this migration.';
+    END IF;
+END $$;
+
+-- A date casts to timestamp without time zone, which keeps date_trunc immutable and
+-- usable in an index. Databases that got it from an earlier V4 already have it.
+CREATE UNIQUE INDEX IF NOT EXISTS salary_employee_month_key
+    ON salary (employee_id, (date_trunc('month', salary_date::timestamp)));
@@ -8,60 +8,141 @@ function showDeleteModal(employeeId, employeeName) {
     deleteModal.show();
 }
 
-// Search functionality
+// Type-ahead suggestions under the search box; Enter still runs the full search
 document.addEventListener('DOMContentLoaded', function() {
     const searchInput = document.getElementById('searchInput');
-    if (searchInput) {
-        searchInput.addEventListener('keyup', function() {
-            const searchText = this.value.toLowerCase();
-            const rows = document.querySelectorAll('#employeesTable tbody tr');
-            let visibleCount = 0;
-            
-            rows.forEach(row => {
-                if (row.id === 'emptyStateRow') {
-                    return;
-                }
-                
-                const text = row.textContent.toLowerCase();
-                if (text.includes(searchText)) {
-                    row.style.display = '';
-                    visibleCount++;
-                } else {
-                    row.style.display = 'none';
-                }
-            });
-            
-            // Show empty state if no results
-            const emptyStateRow = document.getElementById('emptyStateRow');
-            if (emptyStateRow) {
-                if (visibleCount === 0 && searchText !== '') {
-                    emptyStateRow.style.display = '';
-                    emptyStateRow.querySelector('.empty-state').innerHTML = `
-                        <i class="fas fa-search"></i>
-                        <h5>No Employees Found</h5>
-                        <p class="mb-3">No employees match your search criteria.</p>
-                        <button class="btn btn-primary-custom" onclick="clearSearch()">
-                            <i class="fas fa-times me-2"></i> Clear Search
-                        </button>
-                    `;
-                } else if (searchText === '') {
-                    const employeeRows = document.querySelectorAll('#employeesTable tbody tr:not(#emptyStateRow)');
-                    const hasEmployees = employeeRows.length > 0 && employeeRows[0].style.display !== 'none';
-                    emptyStateRow.style.display = hasEmployees ? 'none' : '';
-                } else {
-                    emptyStateRow.style.display = 'none';
-                }
-            }
-        });
+    const menu = document.getElementById('searchSuggestions');
+    if (!searchInput || !menu) {
+        return;
     }
+
+    let latestRequest = 0;
+    searchInput.addEventListener('input', function() {
+        const query = this.value.trim();
+        const request = ++latestRequest;
+        if (query === '') {
+            menu.classList.remove('show');
+            return;
+        }
+        fetch('/api/employees/autocomplete?limit=8&q=' + encodeURIComponent(query))
+            .then(response => response.ok ? response.json() : [])
+            .then(suggestions => {
+                // Answers to earlier keystrokes may arrive late
+                if (request === latestRequest) {
+                    showSuggestions(menu, suggestions);
+                }
+            })
+            .catch(() => menu.classList.remove('show'));
+    });
+    // Delayed so that a click on a suggestion still lands
+    searchInput.addEventListener('blur', () => setTimeout(() => menu.classList.remove('show'), 200));
 });
 
-function clearSearch() {
-    const searchInput = document.getElementById('searchInput');
-    if (searchInput) {
-        searchInput.value = '';
-        searchInput.dispatchEvent(new Event('keyup'));
+function showSuggestions(menu, suggestions) {
+    menu.replaceChildren();
+    suggestions.forEach(suggestion => {
+        const item = document.createElement('a');
+        item.className = 'dropdown-item';
+        item.href = '/employees/view/' + suggestion.id;
+
+        const name = document.createElement('div');
+        name.textContent = suggestion.employeeNameInEnglish || 'Unnamed Employee';
+        const details = document.createElement('small');
+        details.className = 'text-muted';
+        details.textContent = [suggestion.employeeNameInArabic, suggestion.nationalId].filter(Boolean).join(' · ');
+
+        item.append(name, details);
+        menu.append(item);
+    });
+    menu.classList.toggle('show', suggestions.length > 0);
+}
+
+// Bulk insurance download for the rows currently visible in the table
+// mode: 'batch' for a ZIP of PDFs, 'merged' for a single print-ready PDF
+function downloadVisibleInsurance(mode) {
+    const ids = [];
+    document.querySelectorAll('#employeesTable tbody tr:not(#emptyStateRow)').forEach(row => {
+        const deleteButton = row.querySelector('.btn-delete');
+        if (row.style.display !== 'none' && deleteButton) {
+            ids.push(deleteButton.getAttribute('data-id'));
+        }
+    });
+    if (ids.length === 0) {
+        return;
     }
+
+    // Generated as a background job; the file is downloaded once it is ready
+    const params = new URLSearchParams();
+    ids.forEach(id => params.append('ids', id));
+    fetch('/employees/download-insurance/' + mode + '/job', { method: 'POST', body: params })
+        .then(response => {
+            if (!response.ok) {
+                throw new Error('HTTP ' + response.status);
+            }
+            return response.json();
+        })
+        .then(job => waitForJob(job.id))
+        .then(job => {
+            window.location.href = '/api/documents/jobs/' + job.id + '/result';
+        })
+        .catch(error => alert('Could not generate insurance forms: ' + error.message));
+}
+
+function importEmployees(input) {
+    const file = input.files[0];
+    input.value = '';
+    if (!file) {
+        return;
+    }
+
+    const body = new FormData();
+    body.append('file', file);
+    fetch('/api/employees/import', { method: 'POST', body: body })
+        .then(response => response.json().then(report => {
+            if (!response.ok) {
+                throw new Error(report.error || 'HTTP ' + response.status);
+            }
+            return report;
+        }))
+        .then(report => {
+            let message = 'Imported ' + report.imported + ' of ' + report.rowsRead + ' rows';
+            if (report.failed > 0) {
+                message += '\n\n' + report.failed + ' rows failed:\n'
+                    + report.errors.slice(0, 20).map(error => 'Row ' + error.row + ': ' + error.message).join('\n');
+                if (report.failed > 20) {
+                    message += '\n...';
+                }
+            }
+            if (report.ignoredColumns.length > 0) {
+                message += '\n\nIgnored columns: ' + report.ignoredColumns.join(', ');
+            }
+            alert(message);
+            if (report.imported > 0) {
+                window.location.reload();
+            }
+        })
+        .catch(error => alert('Could not import employees: ' + error.message));
+}
+
+// Resolves with the job once it is done, using the job's server-sent events
+function waitForJob(jobId) {
+    return new Promise((resolve, reject) => {
+        const events = new EventSource('/api/documents/jobs/' + jobId + '/events');
+        events.addEventListener('status', event => {
+            const job = JSON.parse(event.data);
+            if (job.status === 'DONE') {
+                events.close();
+                resolve(job);
+            } else if (job.status === 'FAILED') {
+                events.close();
+                reject(new Error(job.error));
+            }
+        });
+        events.onerror = () => {
+            events.close();
+            reject(new Error('Lost connection to the server'));
+        };
+    });
 }
 
 // Auto-dismiss alerts after 5 seconds
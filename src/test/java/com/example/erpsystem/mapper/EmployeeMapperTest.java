@@ -0,0 +1,135 @@
+package com.example.erpsystem.mapper;
+
+import com.example.erpsystem.model.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeMapperTest {
+
+    @Test
+    void identicalEmployeesHaveNoChanges() {
+        Employee target = employee();
+
+        assertThat(EmployeeMapper.applyChanges(employee(), target)).isEmpty();
+        assertThat(target.getEmployeeNameInEnglish()).isEqualTo("Ahmed Ali");
+    }
+
+    @Test
+    void onlyChangedFieldsAreCopiedAndReported() {
+        Employee source = employee();
+        source.setTitleInEnglish("Senior Accountant");
+        source.setAddressInArabic("الجيزة");
+        Employee target = employee();
+
+        List<String> changed = EmployeeMapper.applyChanges(source, target);
+
+        assertThat(changed).containsExactly("titleInEnglish", "addressInArabic");
+        assertThat(target.getTitleInEnglish()).isEqualTo("Senior Accountant");
+        assertThat(target.getAddressInArabic()).isEqualTo("الجيزة");
+    }
+
+    @Test
+    void emptyTextEqualsNoText() {
+        Employee source = employee();
+        source.setEducationInEnglish("");
+        Employee target = employee();
+        target.setEducationInEnglish(null);
+
+        assertThat(EmployeeMapper.applyChanges(source, target)).isEmpty();
+        assertThat(target.getEducationInEnglish()).isNull();
+    }
+
+    @Test
+    void amountsAreComparedByValueAndKeepTheirScale() {
+        Employee source = employee();
+        source.setBasicSalary(new BigDecimal("5000"));
+        source.setContributionSalary(new BigDecimal("3100.5"));
+        Employee target = employee();
+        target.setBasicSalary(new BigDecimal("5000.00"));
+        target.setContributionSalary(new BigDecimal("3100.50"));
+
+        assertThat(EmployeeMapper.applyChanges(source, target)).isEmpty();
+        assertThat(target.getBasicSalary()).isEqualByComparingTo("5000").hasToString("5000.00");
+        assertThat(target.getContributionSalary()).hasToString("3100.50");
+    }
+
+    @Test
+    void changedAmountIsCopied() {
+        Employee source = employee();
+        source.setBasicSalary(new BigDecimal("6000.00"));
+        source.setVariableSalaryNumber(null);
+        Employee target = employee();
+
+        assertThat(EmployeeMapper.applyChanges(source, target)).containsExactly("basicSalary", "variableSalaryNumber");
+        assertThat(target.getBasicSalary()).hasToString("6000.00");
+        assertThat(target.getVariableSalaryNumber()).isNull();
+    }
+
+    @Test
+    void newStartDateKeepsTheSubmittedEndDate() {
+        Employee source = employee();
+        source.setStartDate(LocalDate.of(2025, 3, 1));
+        // Submitted end date differs from the one setStartDate derives
+        source.setEndDate(LocalDate.of(2025, 12, 31));
+        Employee target = employee();
+
+        assertThat(EmployeeMapper.applyChanges(source, target)).containsExactly("startDate", "endDate");
+        assertThat(target.getStartDate()).isEqualTo(LocalDate.of(2025, 3, 1));
+        assertThat(target.getEndDate()).isEqualTo(LocalDate.of(2025, 12, 31));
+    }
+
+    @Test
+    void newStartDateWithUnchangedEndDateKeepsTheEndDate() {
+        Employee source = employee();
+        source.setStartDate(LocalDate.of(2025, 3, 1));
+        source.setEndDate(employee().getEndDate());
+        Employee target = employee();
+
+        // setStartDate resets the end date on the target, but the end date was not edited
+        assertThat(EmployeeMapper.applyChanges(source, target)).containsExactly("startDate");
+        assertThat(target.getEndDate()).isEqualTo(LocalDate.of(2025, 6, 30));
+    }
+
+    @Test
+    void newStartDateWithTheDerivedEndDate() {
+        Employee source = employee();
+        source.setStartDate(LocalDate.of(2025, 3, 1));
+        Employee target = employee();
+
+        assertThat(EmployeeMapper.applyChanges(source, target)).containsExactly("startDate", "endDate");
+        assertThat(target.getEndDate()).isEqualTo(LocalDate.of(2026, 2, 28));
+    }
+
+    @Test
+    void clearedEndDateStaysCleared() {
+        Employee source = employee();
+        source.setEndDate(null);
+        Employee target = employee();
+
+        assertThat(EmployeeMapper.applyChanges(source, target)).containsExactly("endDate");
+        assertThat(target.getEndDate()).isNull();
+        assertThat(target.getStartDate()).isEqualTo(LocalDate.of(2025, 1, 1));
+    }
+
+    private static Employee employee() {
+        Employee employee = new Employee();
+        employee.setStartDate(LocalDate.of(2025, 1, 1));
+        // Not the derived 2025-12-31, as after an end date was edited by hand
+        employee.setEndDate(LocalDate.of(2025, 6, 30));
+        employee.setEmployeeNameInEnglish("Ahmed Ali");
+        employee.setEmployeeNameInArabic("أحمد علي");
+        employee.setNationalId("29501010123451");
+        employee.setTitleInEnglish("Accountant");
+        employee.setAddressInArabic("القاهرة");
+        employee.setEducationInEnglish("B.Com");
+        employee.setBasicSalary(new BigDecimal("5000.00"));
+        employee.setContributionSalary(new BigDecimal("3100.00"));
+        employee.setVariableSalaryNumber(new BigDecimal("250.00"));
+        return employee;
+    }
+}
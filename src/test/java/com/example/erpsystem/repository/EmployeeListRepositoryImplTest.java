@@ -0,0 +1,163 @@
+package com.example.erpsystem.repository;
+
+import com.example.erpsystem.MaxabERP;
+import com.example.erpsystem.dto.EmployeePage;
+import com.example.erpsystem.dto.EmployeeSort;
+import com.example.erpsystem.dto.EmployeeSummary;
+import com.example.erpsystem.model.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Walks every sort order page by page, forwards and backwards, against the same rows
+ * sorted in memory. The test saves its own employees, some with a null name or start
+ * date, so cursors land on null keys and pages cross from keyed rows into null rows
+ * and back. Other employees in the database are skipped when comparing, and the saved
+ * rows are rolled back.
+ */
+@SpringBootTest(classes = MaxabERP.class)
+@Transactional
+class EmployeeListRepositoryImplTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private List<Employee> employees;
+    private Set<Long> ownIds;
+
+    @BeforeEach
+    void setUp() {
+        employees = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Employee employee = new Employee();
+            // Few distinct keys, so equal keys are ordered by id; letters and digits sort alike in every collation
+            employee.setEmployeeNameInEnglish(i % 5 == 1 ? null : "N" + i % 4);
+            employee.setStartDate(i % 4 == 2 ? null : LocalDate.of(2024, 1 + i % 3, 1));
+            entityManager.persist(employee);
+            employees.add(employee);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        ownIds = employees.stream().map(Employee::getId).collect(Collectors.toSet());
+    }
+
+    @Test
+    void pagesForwardInSortOrder() {
+        for (EmployeeSort sort : EmployeeSort.values()) {
+            for (int size : new int[] {1, 4}) {
+                assertThat(walkForward(sort, size)).as("%s by %d", sort, size).isEqualTo(expectedOrder(sort));
+            }
+        }
+    }
+
+    @Test
+    void pagesBackwardInSortOrder() {
+        for (EmployeeSort sort : EmployeeSort.values()) {
+            for (int size : new int[] {1, 4}) {
+                assertThat(walkBackward(sort, size)).as("%s by %d", sort, size).isEqualTo(expectedOrder(sort));
+            }
+        }
+    }
+
+    @Test
+    void firstAndLastPagesHaveNoNeighbourBeyondThem() {
+        EmployeePage first = employeeRepository.findPage(EmployeeSort.START_DATE, null, null, 4);
+        assertThat(first.isHasPrevious()).isFalse();
+        assertThat(first.isHasNext()).isTrue();
+
+        // The saved rows have the newest ids, so they end the list by id
+        List<Long> expected = expectedOrder(EmployeeSort.ID);
+        Long last = expected.get(expected.size() - 1);
+        EmployeePage beforeLast = employeeRepository.findPage(EmployeeSort.ID, null, last, 2);
+        assertThat(ids(beforeLast)).isEqualTo(expected.subList(expected.size() - 3, expected.size() - 1));
+        assertThat(beforeLast.isHasNext()).isTrue();
+        assertThat(beforeLast.isHasPrevious()).isTrue();
+
+        EmployeePage end = employeeRepository.findPage(EmployeeSort.ID, last, null, 4);
+        assertThat(end.getEmployees()).isEmpty();
+        assertThat(end.isHasNext()).isFalse();
+    }
+
+    @Test
+    void unknownCursorGivesTheFirstPage() {
+        EmployeePage page = employeeRepository.findPage(EmployeeSort.NAME, -1L, null, 3);
+
+        assertThat(ids(page)).isEqualTo(ids(employeeRepository.findPage(EmployeeSort.NAME, null, null, 3)));
+        assertThat(page.isHasPrevious()).isFalse();
+    }
+
+    // The saved rows in list order, read by following the next-page cursors
+    private List<Long> walkForward(EmployeeSort sort, int size) {
+        List<Long> seen = new ArrayList<>();
+        EmployeePage page = employeeRepository.findPage(sort, null, null, size);
+        seen.addAll(ownIds(page));
+        while (page.isHasNext()) {
+            page = employeeRepository.findPage(sort, page.getLastId(), null, size);
+            assertThat(page.isHasPrevious()).isTrue();
+            seen.addAll(ownIds(page));
+        }
+        return seen;
+    }
+
+    // Starts before the last saved row and reads previous pages until the first one
+    private List<Long> walkBackward(EmployeeSort sort, int size) {
+        List<Long> order = expectedOrder(sort);
+        List<List<Long>> pages = new ArrayList<>();
+        EmployeePage page = employeeRepository.findPage(sort, null, order.get(order.size() - 1), size);
+        pages.add(ownIds(page));
+        while (page.isHasPrevious()) {
+            page = employeeRepository.findPage(sort, null, page.getFirstId(), size);
+            assertThat(page.isHasNext()).isTrue();
+            pages.add(ownIds(page));
+        }
+        Collections.reverse(pages);
+        List<Long> all = new ArrayList<>();
+        pages.forEach(all::addAll);
+        all.add(order.get(order.size() - 1));
+        return all;
+    }
+
+    // The saved rows sorted in memory
+    private List<Long> expectedOrder(EmployeeSort sort) {
+        return employees.stream().sorted(inListOrder(sort)).map(Employee::getId).toList();
+    }
+
+    // Null keys go last, and equal or null keys are ordered by id in the direction of the sort
+    private static Comparator<Employee> inListOrder(EmployeeSort sort) {
+        Comparator<Employee> byId = Comparator.comparing(Employee::getId);
+        return switch (sort) {
+            case ID -> byId;
+            case NEWEST -> byId.reversed();
+            case NAME -> Comparator.comparing(Employee::getEmployeeNameInEnglish,
+                    Comparator.nullsLast(Comparator.<String>naturalOrder())).thenComparing(byId);
+            case START_DATE -> Comparator.comparing(Employee::getStartDate,
+                    Comparator.nullsLast(Comparator.<LocalDate>reverseOrder())).thenComparing(byId.reversed());
+        };
+    }
+
+    private List<Long> ownIds(EmployeePage page) {
+        return ids(page).stream().filter(ownIds::contains).toList();
+    }
+
+    private static List<Long> ids(EmployeePage page) {
+        return page.getEmployees().stream().map(EmployeeSummary::getId).toList();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.erpsystem.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DocumentMemoryBudgetTest {
+
+    private static final int KIB = 1024;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void reservationIsRoundedUpToKibAndReleasedOnce() {
+        DocumentMemoryBudget budget = budget(10 * KIB, Duration.ofSeconds(1), 4);
+
+        DocumentMemoryBudget.Reservation reservation = budget.reserve(3 * KIB + 1);
+        assertThat(budget.getStats().inUseBytes()).isEqualTo(4 * KIB);
+
+        reservation.close();
+        reservation.close();
+        assertThat(budget.getStats().inUseBytes()).isZero();
+        assertThat(budget.getStats().budgetBytes()).isEqualTo(10 * KIB);
+        assertThat(budget.getStats().admitted()).isEqualTo(1);
+    }
+
+    @Test
+    void reservationLargerThanTheBudgetIsCappedToIt() {
+        DocumentMemoryBudget budget = budget(10 * KIB, Duration.ofSeconds(1), 4);
+
+        try (DocumentMemoryBudget.Reservation ignored = budget.reserve(100 * KIB)) {
+            assertThat(budget.getStats().inUseBytes()).isEqualTo(10 * KIB);
+        }
+    }
+
+    @Test
+    void waitingRenderIsAdmittedWhenBudgetIsReleased() throws Exception {
+        DocumentMemoryBudget budget = budget(10 * KIB, Duration.ofSeconds(10), 4);
+        DocumentMemoryBudget.Reservation holder = budget.reserve(8 * KIB);
+
+        Future<DocumentMemoryBudget.Reservation> waiting = executor.submit(() -> budget.reserve(5 * KIB));
+        awaitTrue(() -> budget.getStats().queued() == 1);
+        assertThat(waiting.isDone()).isFalse();
+
+        holder.close();
+        waiting.get(5, TimeUnit.SECONDS).close();
+
+        DocumentMemoryBudget.Stats stats = budget.getStats();
+        assertThat(stats.admitted()).isEqualTo(2);
+        assertThat(stats.admittedAfterWait()).isEqualTo(1);
+        assertThat(stats.queued()).isZero();
+        assertThat(stats.inUseBytes()).isZero();
+    }
+
+    @Test
+    void smallReservationDoesNotOvertakeAWaitingLargeOne() throws Exception {
+        DocumentMemoryBudget budget = budget(10 * KIB, Duration.ofSeconds(10), 4);
+        DocumentMemoryBudget.Reservation holder = budget.reserve(8 * KIB);
+
+        Future<DocumentMemoryBudget.Reservation> large = executor.submit(() -> budget.reserve(5 * KIB));
+        awaitTrue(() -> budget.getStats().queued() == 1);
+        // Fits in the 2 KiB left, but has to wait behind the large reservation
+        Future<DocumentMemoryBudget.Reservation> small = executor.submit(() -> budget.reserve(KIB));
+        awaitTrue(() -> budget.getStats().queued() == 2);
+        assertThat(small.isDone()).isFalse();
+
+        holder.close();
+        large.get(5, TimeUnit.SECONDS).close();
+        small.get(5, TimeUnit.SECONDS).close();
+        assertThat(budget.getStats().admittedAfterWait()).isEqualTo(2);
+    }
+
+    @Test
+    void renderIsRejectedWhenTheWaitTimesOut() {
+        DocumentMemoryBudget budget = budget(10 * KIB, Duration.ofMillis(50), 4);
+        budget.reserve(10 * KIB);
+
+        assertThatThrownBy(() -> budget.reserve(KIB))
+                .isInstanceOf(DocumentBudgetExceededException.class)
+                .hasMessageContaining("timed out")
+                .extracting(e -> ((DocumentBudgetExceededException) e).getRetryAfter())
+                .isEqualTo(Duration.ofSeconds(5));
+        assertThat(budget.getStats().rejected()).isEqualTo(1);
+        assertThat(budget.getStats().queued()).isZero();
+    }
+
+    @Test
+    void renderIsRejectedRightAwayWhenTheQueueIsFull() throws Exception {
+        DocumentMemoryBudget budget = budget(10 * KIB, Duration.ofSeconds(10), 1);
+        DocumentMemoryBudget.Reservation holder = budget.reserve(10 * KIB);
+        Future<DocumentMemoryBudget.Reservation> waiting = executor.submit(() -> budget.reserve(KIB));
+        awaitTrue(() -> budget.getStats().queued() == 1);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> budget.reserve(KIB))
+                .isInstanceOf(DocumentBudgetExceededException.class)
+                .hasMessageContaining("queue is full");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+
+        holder.close();
+        waiting.get(5, TimeUnit.SECONDS).close();
+        DocumentMemoryBudget.Stats stats = budget.getStats();
+        assertThat(stats.rejected()).isEqualTo(1);
+        assertThat(stats.admitted()).isEqualTo(2);
+    }
+
+    private static DocumentMemoryBudget budget(long maxBytes, Duration queueTimeout, int maxQueued) {
+        return new DocumentMemoryBudget(maxBytes, queueTimeout, maxQueued, Duration.ofSeconds(5));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
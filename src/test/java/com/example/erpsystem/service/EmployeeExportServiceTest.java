@@ -0,0 +1,27 @@
+package com.example.erpsystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeExportServiceTest {
+
+    @Test
+    void textStartingLikeAFormulaIsAFormula() {
+        assertThat(EmployeeExportService.isFormula("=HYPERLINK(\"http://x\",\"y\")")).isTrue();
+        assertThat(EmployeeExportService.isFormula("+20 100 123 4567")).isTrue();
+        assertThat(EmployeeExportService.isFormula("-2+3")).isTrue();
+        assertThat(EmployeeExportService.isFormula("@SUM(A1)")).isTrue();
+        assertThat(EmployeeExportService.isFormula("\t=1")).isTrue();
+    }
+
+    @Test
+    void numbersAndOrdinaryTextAreNot() {
+        assertThat(EmployeeExportService.isFormula("-500")).isFalse();
+        assertThat(EmployeeExportService.isFormula("-1250.75")).isFalse();
+        assertThat(EmployeeExportService.isFormula("+3")).isFalse();
+        assertThat(EmployeeExportService.isFormula("Cairo")).isFalse();
+        assertThat(EmployeeExportService.isFormula("a=b")).isFalse();
+        assertThat(EmployeeExportService.isFormula("")).isFalse();
+    }
+}
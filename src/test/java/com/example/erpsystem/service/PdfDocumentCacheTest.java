@@ -0,0 +1,189 @@
+package com.example.erpsystem.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfDocumentCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void missIsStoredOnDiskAndInMemory() throws Exception {
+        PdfDocumentCache cache = cache(8000, 10000);
+        AtomicInteger renders = new AtomicInteger();
+
+        assertThat(write(cache, "a", document(100, 'a'), renders)).isEqualTo(document(100, 'a'));
+        assertThat(write(cache, "a", document(100, 'x'), renders)).isEqualTo(document(100, 'a'));
+
+        assertThat(renders).hasValue(1);
+        assertThat(directory.resolve("a.pdf")).hasBinaryContent(document(100, 'a'));
+        PdfDocumentCache.Stats stats = cache.getStats();
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.memoryHits()).isEqualTo(1);
+        assertThat(stats.diskHits()).isZero();
+        assertThat(stats.memoryEntries()).isEqualTo(1);
+        assertThat(stats.memoryBytes()).isEqualTo(100);
+        assertThat(stats.diskBytes()).isEqualTo(100);
+    }
+
+    @Test
+    void largeDocumentIsServedFromDisk() throws Exception {
+        // At most 100 bytes per entry in memory
+        PdfDocumentCache cache = cache(800, 10000);
+        AtomicInteger renders = new AtomicInteger();
+
+        write(cache, "big", document(150, 'b'), renders);
+        assertThat(write(cache, "big", document(150, 'x'), renders)).isEqualTo(document(150, 'b'));
+
+        assertThat(renders).hasValue(1);
+        PdfDocumentCache.Stats stats = cache.getStats();
+        assertThat(stats.diskHits()).isEqualTo(1);
+        assertThat(stats.memoryEntries()).isZero();
+    }
+
+    @Test
+    void leastRecentlyUsedEntryLeavesMemoryFirst() throws Exception {
+        PdfDocumentCache cache = cache(800, 10000);
+        AtomicInteger renders = new AtomicInteger();
+        for (String key : new String[] {"a", "b", "c", "d", "e", "f", "g", "h"}) {
+            write(cache, key, document(100, 'x'), renders);
+        }
+        write(cache, "a", document(100, 'x'), renders);
+
+        write(cache, "i", document(100, 'x'), renders);
+        write(cache, "a", document(100, 'x'), renders);
+        write(cache, "b", document(100, 'x'), renders);
+
+        PdfDocumentCache.Stats stats = cache.getStats();
+        assertThat(stats.memoryBytes()).isEqualTo(800);
+        assertThat(stats.memoryHits()).isEqualTo(2);
+        assertThat(stats.diskHits()).isEqualTo(1);
+    }
+
+    @Test
+    void diskEvictionRemovesOldestFilesDownToNinetyPercent() throws Exception {
+        PdfDocumentCache cache = cache(8000, 1000);
+        AtomicInteger renders = new AtomicInteger();
+        write(cache, "a", document(300, 'a'), renders);
+        write(cache, "b", document(300, 'b'), renders);
+        write(cache, "c", document(300, 'c'), renders);
+        Files.setLastModifiedTime(directory.resolve("a.pdf"), FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(directory.resolve("b.pdf"), FileTime.fromMillis(2000));
+        Files.setLastModifiedTime(directory.resolve("c.pdf"), FileTime.fromMillis(3000));
+
+        write(cache, "d", document(300, 'd'), renders);
+
+        assertThat(directory.resolve("a.pdf")).doesNotExist();
+        assertThat(directory.resolve("b.pdf")).exists();
+        assertThat(directory.resolve("c.pdf")).exists();
+        assertThat(directory.resolve("d.pdf")).exists();
+        assertThat(cache.getStats().diskBytes()).isEqualTo(900);
+
+        // Evicted from memory as well, so it is rendered again
+        write(cache, "a", document(300, 'a'), renders);
+        assertThat(renders).hasValue(5);
+    }
+
+    @Test
+    void invalidationDropsBothTiers() throws Exception {
+        PdfDocumentCache cache = cache(8000, 10000);
+        AtomicInteger renders = new AtomicInteger();
+        cache.write("a", 7, new ByteArrayOutputStream(), out -> out.write(document(100, 'a')));
+        cache.write("b", 8, new ByteArrayOutputStream(), out -> out.write(document(100, 'b')));
+
+        cache.invalidateEmployee(7);
+
+        assertThat(directory.resolve("a.pdf")).doesNotExist();
+        assertThat(directory.resolve("b.pdf")).exists();
+        PdfDocumentCache.Stats stats = cache.getStats();
+        assertThat(stats.memoryEntries()).isEqualTo(1);
+        assertThat(stats.diskBytes()).isEqualTo(100);
+        assertThat(stats.invalidations()).isEqualTo(1);
+        assertThat(write(cache, "a", document(100, 'n'), renders)).isEqualTo(document(100, 'n'));
+    }
+
+    @Test
+    void concurrentMissesOnOneKeyAreCountedOnce() throws Exception {
+        PdfDocumentCache cache = cache(8000, 10000);
+        CountDownLatch bothRendering = new CountDownLatch(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> renderAfterLatch(cache, bothRendering));
+            Future<?> second = executor.submit(() -> renderAfterLatch(cache, bothRendering));
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        PdfDocumentCache.Stats stats = cache.getStats();
+        assertThat(stats.misses()).isEqualTo(2);
+        assertThat(stats.diskBytes()).isEqualTo(200);
+        try (var files = Files.list(directory)) {
+            assertThat(files).containsExactly(directory.resolve("same.pdf"));
+        }
+    }
+
+    @Test
+    void existingFilesAreCountedAndTemporaryFilesRemovedAtStartup() throws Exception {
+        Files.write(directory.resolve("old.pdf"), document(120, 'o'));
+        Files.write(directory.resolve("old123.tmp"), document(50, 't'));
+
+        PdfDocumentCache cache = cache(8000, 10000);
+
+        assertThat(cache.getStats().diskBytes()).isEqualTo(120);
+        assertThat(directory.resolve("old123.tmp")).doesNotExist();
+    }
+
+    private Void renderAfterLatch(PdfDocumentCache cache, CountDownLatch bothRendering) throws Exception {
+        cache.write("same", 1, new ByteArrayOutputStream(), out -> {
+            out.write(document(200, 's'));
+            bothRendering.countDown();
+            try {
+                bothRendering.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        return null;
+    }
+
+    private PdfDocumentCache cache(long memoryMaxBytes, long diskMaxBytes) throws IOException {
+        // The template registry is only needed to compute keys
+        return new PdfDocumentCache(null, directory.toString(),
+                DataSize.ofBytes(memoryMaxBytes), DataSize.ofBytes(diskMaxBytes));
+    }
+
+    private static byte[] write(PdfDocumentCache cache, String key, byte[] content, AtomicInteger renders)
+            throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.write(key, 1, out, stream -> {
+            renders.incrementAndGet();
+            stream.write(content);
+        });
+        return out.toByteArray();
+    }
+
+    private static byte[] document(int size, char fill) {
+        byte[] bytes = new byte[size];
+        Arrays.fill(bytes, (byte) fill);
+        return bytes;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.erpsystem.service;
+
+import com.example.erpsystem.model.SalaryEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SalaryCalculationServiceTest {
+
+    // Annual tax pools where a bracket ends
+    private static final double[] BRACKET_BOUNDARIES = {
+            0, 40000, 55000, 70000, 200000, 400000, 600000, 700000, 800000, 900000, 1200000};
+
+    private static final double[] CONTRIBUTIONS = {0, 2500, 9400.75};
+
+    private final SalaryCalculationService service = new SalaryCalculationService();
+
+    @Test
+    void everyEntryPointMatchesTheBaselineFormulaAtBracketBoundaries() {
+        List<double[]> cases = boundaryCases();
+        double[] gross = new double[cases.size()];
+        double[] contribution = new double[cases.size()];
+        for (int i = 0; i < cases.size(); i++) {
+            gross[i] = cases.get(i)[0];
+            contribution[i] = cases.get(i)[1];
+        }
+        SalaryColumns batch = service.calculateBatch(gross, contribution);
+
+        for (int i = 0; i < cases.size(); i++) {
+            SalaryEntity expected = baseline(gross[i], contribution[i]);
+            SalaryEntity single = service.calculateAndPopulateSalary(salary(gross[i], contribution[i]));
+            SalaryEntity fromBatch = salary(gross[i], contribution[i]);
+            batch.copyTo(i, fromBatch);
+
+            String description = "gross " + gross[i] + ", contribution " + contribution[i];
+            assertThat(single).as(description).usingRecursiveComparison().isEqualTo(expected);
+            assertThat(fromBatch).as(description).usingRecursiveComparison().isEqualTo(expected);
+            assertThat(service.calculateNetSalary(gross[i], contribution[i])).as(description)
+                    .isEqualTo(expected.getNetSalary());
+        }
+    }
+
+    @Test
+    void boundaryCasesLandOnTheBoundaries() {
+        SalaryEntity salary = service.calculateAndPopulateSalary(salary((55000 + 20000) / 12.0 + 2500 * 0.11, 2500));
+
+        assertThat(salary.getAnnualTaxPools()).isEqualTo(55000.0);
+        assertThat(salary.getTaxesBasic()).isEqualTo(125.0);
+    }
+
+    @Test
+    void batchIntoReusedColumnsOnlyWritesTheFirstRows() {
+        SalaryColumns out = new SalaryColumns(3);
+        service.calculateBatch(new double[]{10000, 20000, 30000}, new double[]{5000, 5000, 5000}, 3, out);
+        double third = out.getNetSalary()[2];
+
+        service.calculateBatch(new double[]{12000}, new double[]{6000}, 1, out);
+
+        assertThat(out.getNetSalary()[0]).isEqualTo(service.calculateNetSalary(12000.0, 6000.0));
+        assertThat(out.getNetSalary()[2]).isEqualTo(third);
+    }
+
+    @Test
+    void batchLargerThanItsInputsIsRejected() {
+        assertThatThrownBy(() -> service.calculateBatch(new double[2], new double[2], 3, new SalaryColumns(3)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.calculateBatch(new double[3], new double[3], 3, new SalaryColumns(2)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Gross salaries putting the annual tax pools on, just under and just over each boundary
+    private static List<double[]> boundaryCases() {
+        List<double[]> cases = new ArrayList<>();
+        for (double boundary : BRACKET_BOUNDARIES) {
+            for (double contribution : CONTRIBUTIONS) {
+                double gross = (boundary + 20000) / 12 + contribution * 0.11;
+                for (double delta : new double[]{-0.01, 0, 0.01}) {
+                    cases.add(new double[]{gross + delta, contribution});
+                }
+            }
+        }
+        return cases;
+    }
+
+    private static SalaryEntity salary(double gross, double contribution) {
+        SalaryEntity salary = new SalaryEntity();
+        salary.setGrossSalary(gross);
+        salary.setContributionSalary(contribution);
+        return salary;
+    }
+
+    // The formula as it was before the primitive kernel, boxed values and all
+    private static SalaryEntity baseline(Double grossSalary, Double contributionSalary) {
+        Double companyShareSocInsurance = contributionSalary * 0.1875;
+        Double employeeShareSocInsurance = contributionSalary * 0.11;
+        Double martyrsFund = grossSalary * 0.0005;
+        Double annualTaxPools = ((grossSalary - employeeShareSocInsurance) * 12) - 20000;
+        Double annualTaxesBasic = baselineTaxes(annualTaxPools);
+        Double monthlyTaxesBasic = annualTaxesBasic / 12;
+        Double netSalary = grossSalary - employeeShareSocInsurance - monthlyTaxesBasic - martyrsFund;
+
+        SalaryEntity salary = salary(grossSalary, contributionSalary);
+        salary.setCompanyShareSocInsurance(baselineRound(companyShareSocInsurance));
+        salary.setEmployeeShareSocInsurance(baselineRound(employeeShareSocInsurance));
+        salary.setMartyrsFund(baselineRound(martyrsFund));
+        salary.setAnnualTaxPools(baselineRound(annualTaxPools));
+        salary.setTaxesBasic(baselineRound(monthlyTaxesBasic));
+        salary.setNetSalary(baselineRound(netSalary));
+        return salary;
+    }
+
+    private static Double baselineTaxes(Double annualTaxPools) {
+        if (annualTaxPools <= 0) {
+            return 0.0;
+        } else if (annualTaxPools <= 40000) {
+            return 0.0;
+        } else if (annualTaxPools <= 55000) {
+            return (annualTaxPools - 40000) * 0.10;
+        } else if (annualTaxPools <= 70000) {
+            return ((annualTaxPools - 55000) * 0.15) + 1500;
+        } else if (annualTaxPools <= 200000) {
+            return ((annualTaxPools - 70000) * 0.20) + 1500 + 2250;
+        } else if (annualTaxPools <= 400000) {
+            return ((annualTaxPools - 200000) * 0.225) + 1500 + 2250 + 26000;
+        } else if (annualTaxPools <= 600000) {
+            return ((annualTaxPools - 400000) * 0.25) + 1500 + 2250 + 26000 + 45000;
+        } else if (annualTaxPools <= 700000) {
+            return ((annualTaxPools - 400000) * 0.25) + 5500 + 2250 + 26000 + 45000;
+        } else if (annualTaxPools <= 800000) {
+            return ((annualTaxPools - 400000) * 0.25) + 10500 + 26000 + 45000;
+        } else if (annualTaxPools <= 900000) {
+            return ((annualTaxPools - 400000) * 0.25) + 40000 + 45000;
+        } else if (annualTaxPools <= 1200000) {
+            return ((annualTaxPools - 400000) * 0.25) + 90000;
+        } else {
+            return ((annualTaxPools - 1200000) * 0.275) + 300000;
+        }
+    }
+
+    private static Double baselineRound(Double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.erpsystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpreadsheetReaderTest {
+
+    private record Row(int number, List<String> cells) {
+    }
+
+    @Test
+    void readsRowsAndCells() throws IOException {
+        assertThat(readCsv("name,id\nAhmed,1\nMona,2\n")).containsExactly(
+                new Row(1, List.of("name", "id")),
+                new Row(2, List.of("Ahmed", "1")),
+                new Row(3, List.of("Mona", "2")));
+    }
+
+    @Test
+    void lastRowNeedsNoLineBreakAndEmptyCellsAreKept() throws IOException {
+        assertThat(readCsv("a,,c\n,b,")).containsExactly(
+                new Row(1, List.of("a", "", "c")),
+                new Row(2, List.of("", "b", "")));
+    }
+
+    @Test
+    void quotedCellsHoldDelimitersQuotesAndLineBreaks() throws IOException {
+        assertThat(readCsv("\"Cairo, Egypt\",\"He said \"\"yes\"\"\",\"two\nlines\"\nnext,\"\",\"\"\"\"\n")).containsExactly(
+                new Row(1, List.of("Cairo, Egypt", "He said \"yes\"", "two\nlines")),
+                new Row(2, List.of("next", "", "\"")));
+    }
+
+    @Test
+    void quoteInsideAnUnquotedCellIsLiteral() throws IOException {
+        assertThat(readCsv("5'11\",ab\"c\n")).containsExactly(new Row(1, List.of("5'11\"", "ab\"c")));
+    }
+
+    @Test
+    void crlfLineEndsAreRemovedOutsideQuotes() throws IOException {
+        assertThat(readCsv("a,b\r\n\"x\r\ny\",z\r\n")).containsExactly(
+                new Row(1, List.of("a", "b")),
+                new Row(2, List.of("x\r\ny", "z")));
+    }
+
+    @Test
+    void byteOrderMarkIsSkipped() throws IOException {
+        assertThat(readCsv("﻿national_id;name\n29501010123451;أحمد\n")).containsExactly(
+                new Row(1, List.of("national_id", "name")),
+                new Row(2, List.of("29501010123451", "أحمد")));
+    }
+
+    @Test
+    void delimiterIsTheOneTheFirstLineUsesMost() throws IOException {
+        assertThat(readCsv("a;b;c\n1,5;2;3\n")).containsExactly(
+                new Row(1, List.of("a", "b", "c")),
+                new Row(2, List.of("1,5", "2", "3")));
+        assertThat(readCsv("a\tb\tc, d\n1\t2\t3\n")).containsExactly(
+                new Row(1, List.of("a", "b", "c, d")),
+                new Row(2, List.of("1", "2", "3")));
+    }
+
+    @Test
+    void emptyInputHasNoRows() throws IOException {
+        assertThat(readCsv("")).isEmpty();
+        assertThat(readCsv("﻿")).isEmpty();
+    }
+
+    @Test
+    void resultDoesNotDependOnHowTheInputIsSplitIntoReads() throws IOException {
+        String csv = "﻿name;note;city\r\n"
+                + "\"Ahmed \"\"Abu\"\" Ali\";\"first\r\nsecond\";القاهرة\r\n"
+                + "Mona;\"a;b\";\"\"\"\"\r\n"
+                + "last;;\"end\"";
+        List<Row> expected = readCsv(csv);
+        assertThat(expected).containsExactly(
+                new Row(1, List.of("name", "note", "city")),
+                new Row(2, List.of("Ahmed \"Abu\" Ali", "first\r\nsecond", "القاهرة")),
+                new Row(3, List.of("Mona", "a;b", "\"")),
+                new Row(4, List.of("last", "", "end")));
+
+        byte[] bytes = csv.getBytes(StandardCharsets.UTF_8);
+        for (int chunk = 1; chunk <= 8; chunk++) {
+            assertThat(readCsv(new ChunkedInputStream(bytes, chunk))).as("%d bytes per read", chunk)
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void doubledQuoteSplitAcrossTheReadBuffer() throws IOException {
+        // The reader buffers 64K chars; the doubled quote starts at the last one
+        String text = "x".repeat(64 * 1024 - 2);
+        String csv = "\"" + text + "\"\"y\",z\nnext,row\n";
+
+        assertThat(readCsv(csv)).containsExactly(
+                new Row(1, List.of(text + "\"y", "z")),
+                new Row(2, List.of("next", "row")));
+    }
+
+    @Test
+    void lineBreakSplitAcrossTheReadBuffer() throws IOException {
+        String text = "x".repeat(64 * 1024 - 1);
+        String csv = text + "\r\nnext\r\n";
+
+        assertThat(readCsv(csv)).containsExactly(
+                new Row(1, List.of(text)),
+                new Row(2, List.of("next")));
+    }
+
+    private static List<Row> readCsv(String csv) throws IOException {
+        return readCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static List<Row> readCsv(InputStream in) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        SpreadsheetReader.readCsv(in, (number, cells) -> rows.add(new Row(number, List.copyOf(cells))));
+        return rows;
+    }
+
+    // Hands out at most chunk bytes per read and never reports more as available,
+    // like a slow network upload
+    private static final class ChunkedInputStream extends InputStream {
+
+        private final byte[] bytes;
+        private final int chunk;
+        private int position;
+
+        private ChunkedInputStream(byte[] bytes, int chunk) {
+            this.bytes = bytes;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read() {
+            return position < bytes.length ? bytes[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (position >= bytes.length) {
+                return -1;
+            }
+            int count = Math.min(Math.min(len, chunk), bytes.length - position);
+            System.arraycopy(bytes, position, b, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return 0;
+        }
+    }
+}